@@ -0,0 +1,55 @@
+package ru.netology.data;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CardCorpusBenchmark {
+    private static final Gson gson = new Gson();
+    private CardCorpus.Cursor cursor;
+    private CardCorpus.Cursor preserialized;
+    private DataHelper.CardInfo cardInfo;
+
+    @Setup
+    public void setup() {
+        cursor = CardCorpus.build(1, 10_000, CardCorpus.Category.values()).cursor(1);
+        preserialized = CardCorpus.build(1, 10_000, CardCorpus.Category.values()).preserialize().cursor(1);
+        cardInfo = cursor.next();
+    }
+
+    @Benchmark
+    public DataHelper.CardInfo nextCard() {
+        return cursor.next();
+    }
+
+    @Benchmark
+    public int nextIndex() {
+        return cursor.nextIndex();
+    }
+
+    @Benchmark
+    public byte[] gsonBody() {
+        return gson.toJson(cardInfo).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] cardInfoJsonBody() {
+        return CardInfoJson.toBytes(cardInfo);
+    }
+
+    @Benchmark
+    public byte[] nextPreserializedBody() {
+        return preserialized.nextBody();
+    }
+}
@@ -0,0 +1,183 @@
+package ru.netology.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Генераторы, которые копят месяцы в списке, очищают его после каждого вызова, как это делают тесты в @AfterEach
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DataHelperBenchmark {
+    private final CardNumberGenerator cardNumbers = new CardNumberGenerator(16, true, new Random(1), "2200-2204", "4", "51-55");
+
+    @Benchmark
+    public DataHelper.CardInfo validApprovedCard() {
+        var cardInfo = DataHelper.getValidApprovedCard();
+        DataHelper.cleanListNow();
+        return cardInfo;
+    }
+
+    @Benchmark
+    public DataHelper.CardInfo validDeclinedCard() {
+        var cardInfo = DataHelper.getValidDeclinedCard();
+        DataHelper.cleanListNow();
+        return cardInfo;
+    }
+
+    @Benchmark
+    public String cardNumberElevenDigits() {
+        return DataHelper.generateRandomCardNumberElevenDigits();
+    }
+
+    @Benchmark
+    public String cardNumberTwelveDigits() {
+        return DataHelper.generateRandomCardNumberTwelveDigits();
+    }
+
+    @Benchmark
+    public String cardNumberSixteenDigits() {
+        return DataHelper.generateRandomCardNumberSixteenDigits();
+    }
+
+    @Benchmark
+    public String cardNumberNineteenDigits() {
+        return DataHelper.generateRandomCardNumberNineteenDigits();
+    }
+
+    @Benchmark
+    public String cardNumberTwentyDigits() {
+        return DataHelper.generateRandomCardNumberTwentyDigits();
+    }
+
+    @Benchmark
+    public String luhnValidCardNumber() {
+        return DataHelper.generateLuhnValidCardNumber();
+    }
+
+    @Benchmark
+    public String luhnInvalidCardNumber() {
+        return DataHelper.generateLuhnInvalidCardNumber();
+    }
+
+    @Benchmark
+    public char[] luhnValidCardNumberIntoBuffer() {
+        return cardNumbers.next(true);
+    }
+
+    @Benchmark
+    public String validRandomMonth() {
+        var month = DataHelper.getValidRandomMonth();
+        DataHelper.cleanListNow();
+        return month;
+    }
+
+    @Benchmark
+    public String validRandomMonthAndYear() {
+        DataHelper.getValidRandomMonth();
+        var year = DataHelper.getValidRandomYear();
+        DataHelper.cleanListNow();
+        return year;
+    }
+
+    @Benchmark
+    public String invalidRandomMonth() {
+        return DataHelper.getInvalidRandomMonth();
+    }
+
+    @Benchmark
+    public String monthOneToNine() {
+        return DataHelper.getMonthOneToNine();
+    }
+
+    @Benchmark
+    public String currentMonth() {
+        return DataHelper.getCurrentMonth();
+    }
+
+    @Benchmark
+    public String previousYear() {
+        return DataHelper.previousYear();
+    }
+
+    @Benchmark
+    public String nextYear() {
+        return DataHelper.nextYear();
+    }
+
+    @Benchmark
+    public String invalidYear() {
+        return DataHelper.getInvalidYear();
+    }
+
+    @Benchmark
+    public String validYearMoreThanCurrent20() {
+        return DataHelper.getValidYearMoreThanCurrent20();
+    }
+
+    @Benchmark
+    public String validRandomCardsHolder() {
+        return DataHelper.generateValidRandomCardsHolder();
+    }
+
+    @Benchmark
+    public String holderWithDash() {
+        return DataHelper.generateHolderWithDash();
+    }
+
+    @Benchmark
+    public String holderWithDoubleSpace() {
+        return DataHelper.generateHolderWithDoubleSpace();
+    }
+
+    @Benchmark
+    public String holderWithSpaceBarBefore() {
+        return DataHelper.generateHolderWithSpaceBarBefore();
+    }
+
+    @Benchmark
+    public String holderWithSpaceBarAfter() {
+        return DataHelper.generateHolderWithSpaceBarAfter();
+    }
+
+    @Benchmark
+    public String holderWithUpperAndLowerCaseLatin() {
+        return DataHelper.generateHolderWithUpperAndLowerCaseLatin();
+    }
+
+    @Benchmark
+    public String holderNameLUCyrillic() {
+        return DataHelper.generateRandomCardsHolderNameLUCyrillic();
+    }
+
+    @Benchmark
+    public String holderWithDigits() {
+        return DataHelper.generateRandomCardsHolderWithDigits();
+    }
+
+    @Benchmark
+    public String holderWithOneLetter() {
+        return DataHelper.generateRandomCardsHolderWithOneLetter();
+    }
+
+    @Benchmark
+    public String randomCVV() {
+        return DataHelper.generateRandomCVV();
+    }
+
+    @Benchmark
+    public String randomCVVOneDigit() {
+        return DataHelper.generateRandomCVVOneDigit();
+    }
+
+    @Benchmark
+    public String randomCVVTwoDigits() {
+        return DataHelper.generateRandomCVVTwoDigits();
+    }
+}
@@ -1,22 +1,80 @@
 package ru.netology.data;
 
-import com.google.gson.Gson;
 import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.filter.log.LogDetail;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
+import ru.netology.metrics.Metrics;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 import static io.restassured.RestAssured.given;
 
 public class APIHelper {
-    private static final Gson gson = new Gson();
-    private static final RequestSpecification spec = new RequestSpecBuilder().setBaseUri("http://localhost").setPort(8080)
-            .setAccept(ContentType.JSON).setContentType(ContentType.JSON).log(LogDetail.ALL).build();
+    private static final RequestSpecification spec = buildSpec();
+    // неблокирующий клиент для асинхронных запросов, соединения с SUT переиспользуются (keep-alive)
+    private static final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10)).build();
+    private static final URI baseUri = URI.create("http://localhost:8080/");
+
+    // полное логирование заменено записью ApiCapture, см. -Dapi.capture
+    private static RequestSpecification buildSpec() {
+        var builder = new RequestSpecBuilder().setBaseUri("http://localhost").setPort(8080)
+                .setAccept(ContentType.JSON).setContentType(ContentType.JSON);
+        if (ApiCapture.getMode() != ApiCapture.Mode.OFF) {
+            builder.addFilter(ApiCapture.filter());
+        }
+        return builder.build();
+    }
 
     public static void postRequest(DataHelper.CardInfo cardInfo, String path, String Status) {
-        var body = gson.toJson(cardInfo);
-        given().spec(spec).body(body)
+        var body = toBody(cardInfo);
+        Metrics.run("api.post " + path, () -> given().spec(spec).body(body)
+                .when().post(path)
+                .then().statusCode(Integer.parseInt(Status)));
+    }
+
+    public static byte[] toBody(DataHelper.CardInfo cardInfo) {
+        return CardInfoJson.toBytes(cardInfo);
+    }
+
+    public static int sendRequest(DataHelper.CardInfo cardInfo, String path) { // без логирования и проверки статуса, для нагрузки
+        return sendRawRequest(toBody(cardInfo), path);
+    }
+
+    public static int sendRawRequest(byte[] body, String path) { // тело уже сериализовано, например из CardDataset
+        return given().spec(spec).body(body)
                 .when().post(path)
-                .then().statusCode(Integer.parseInt(Status));
+                .then().extract().statusCode();
+    }
+
+    // проверка статуса как в postRequest, но без блокировки потока: при несовпадении future завершается AssertionError
+    public static CompletableFuture<Integer> postRequestAsync(DataHelper.CardInfo cardInfo, String path, String Status) {
+        int expected = Integer.parseInt(Status);
+        long start = System.nanoTime();
+        return sendRawRequestAsync(toBody(cardInfo), path).thenApply(status -> {
+            Metrics.record("api.postAsync " + path, System.nanoTime() - start);
+            if (status != expected) {
+                throw new AssertionError("Expected status code <" + expected + "> but was <" + status + ">");
+            }
+            return status;
+        });
+    }
+
+    public static CompletableFuture<Integer> sendRawRequestAsync(byte[] body, String path) {
+        var request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        if (ApiCapture.getMode() == ApiCapture.Mode.OFF) {
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+        }
+        var capture = ApiCapture.async("POST", request.uri(), body);
+        return httpClient.sendAsync(request, capture.bodyHandler()).thenApply(capture::complete);
     }
 }
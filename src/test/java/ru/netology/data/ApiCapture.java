@@ -0,0 +1,219 @@
+package ru.netology.data;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import lombok.SneakyThrows;
+import lombok.Value;
+
+import java.io.BufferedWriter;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Запись запросов и ответов API вместо LogDetail.ALL: ничего не форматируется в потоке запроса,
+// трассы складываются в кольцевой буфер и пишутся в файл отдельным потоком.
+// -Dapi.capture=off|sampled|failures (по умолчанию failures), -Dapi.capture.sample=100 - каждый N-й запрос в режиме sampled
+public class ApiCapture implements Filter {
+    public enum Mode { OFF, SAMPLED, FAILURES }
+
+    private static final Mode mode = Mode.valueOf(System.getProperty("api.capture", "failures").toUpperCase());
+    private static final int sampleRate = Integer.getInteger("api.capture.sample", 100);
+    private static final int bufferSize = Integer.getInteger("api.capture.buffer", 1024);
+    private static final Path file = Path.of(System.getProperty("api.capture.file", "build/api-capture.log"));
+
+    private static final ApiCapture instance = new ApiCapture();
+
+    private final BlockingQueue<Trace> buffer = new ArrayBlockingQueue<>(bufferSize);
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // трассы текущего теста; при падении теста уходят в Allure целиком
+    private final ThreadLocal<List<Trace>> testTraces = new ThreadLocal<>();
+    private Thread writer;
+    // остановка писателя флагом, а не interrupt: прерывание во время записи закрыло бы канал файла
+    private volatile boolean stopping;
+
+    @Value
+    public static class Trace {
+        Instant time;
+        String method;
+        String uri;
+        String requestBody;
+        int status;
+        String responseBody;
+        long durationMillis;
+
+        @Override
+        public String toString() {
+            return time + " " + method + " " + uri + " -> " + status + " (" + durationMillis + " ms)\n"
+                    + "Request: " + requestBody + "\n"
+                    + "Response: " + responseBody + "\n";
+        }
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static Filter filter() {
+        return instance;
+    }
+
+    public static void beginTest() {
+        // синхронизированный список: ответы асинхронного клиента дописываются из потоков HttpClient
+        instance.testTraces.set(Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    // трассы закончившегося теста; при failed=true они же пишутся в файл
+    public static List<Trace> endTest(boolean failed) {
+        var traces = instance.testTraces.get();
+        instance.testTraces.remove();
+        if (traces == null) {
+            return List.of();
+        }
+        if (failed && mode == Mode.FAILURES) {
+            traces.forEach(instance::offer);
+        }
+        return List.copyOf(traces);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        var response = ctx.next(requestSpec, responseSpec);
+        var traces = testTraces.get();
+        boolean toFile = toFile(requests.incrementAndGet(), response.statusCode());
+        if (traces == null && !toFile) {
+            return response;
+        }
+        record(traces, toFile, new Trace(Instant.now(), requestSpec.getMethod(), requestSpec.getURI(), bodyOf(requestSpec.getBody()),
+                response.statusCode(), response.asString(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        return response;
+    }
+
+    // запись для асинхронного клиента APIHelper по тем же правилам, что и filter();
+    // создаётся в потоке теста, потому что ответ приходит уже в потоке HttpClient
+    public static AsyncCapture async(String method, URI uri, byte[] requestBody) {
+        return instance.new AsyncCapture(method, uri, requestBody);
+    }
+
+    public class AsyncCapture {
+        private final String method;
+        private final URI uri;
+        private final byte[] requestBody;
+        private final List<Trace> traces = testTraces.get();
+        private final long start = System.nanoTime();
+        private boolean toFile;
+
+        private AsyncCapture(String method, URI uri, byte[] requestBody) {
+            this.method = method;
+            this.uri = uri;
+            this.requestBody = requestBody;
+        }
+
+        // тело ответа читается, только если трасса будет записана, остальные ответы отбрасываются как раньше
+        public HttpResponse.BodyHandler<String> bodyHandler() {
+            return info -> {
+                toFile = toFile(requests.incrementAndGet(), info.statusCode());
+                return traces != null || toFile
+                        ? HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8)
+                        : HttpResponse.BodySubscribers.replacing(null);
+            };
+        }
+
+        public int complete(HttpResponse<String> response) {
+            if (traces != null || toFile) {
+                record(traces, toFile, new Trace(Instant.now(), method, uri.toString(), bodyOf(requestBody),
+                        response.statusCode(), response.body(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            }
+            return response.statusCode();
+        }
+    }
+
+    private static boolean toFile(long n, int status) {
+        return mode == Mode.SAMPLED && n % sampleRate == 0 || mode == Mode.FAILURES && status >= 500;
+    }
+
+    private void record(List<Trace> traces, boolean toFile, Trace trace) {
+        if (traces != null) {
+            traces.add(trace);
+        }
+        if (toFile) {
+            offer(trace);
+        }
+    }
+
+    private static String bodyOf(Object body) {
+        if (body instanceof byte[]) {
+            return new String((byte[]) body, StandardCharsets.UTF_8);
+        }
+        return String.valueOf(body);
+    }
+
+    // при переполнении вытесняется самая старая трасса
+    private void offer(Trace trace) {
+        startWriter();
+        while (!buffer.offer(trace)) {
+            if (buffer.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(this::writeLoop, "api-capture-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopping = true;
+            try {
+                writer.join(2000);
+            } catch (InterruptedException ignored) {
+            }
+        }));
+    }
+
+    @SneakyThrows
+    private void writeLoop() {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# api.capture=" + mode.name().toLowerCase() + "\n");
+            while (!stopping) {
+                Trace trace;
+                try {
+                    trace = buffer.poll(200, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                if (trace == null) {
+                    out.flush();
+                } else {
+                    out.write(trace.toString());
+                }
+            }
+            // дописываем то, что осталось в буфере к остановке JVM
+            for (Trace trace; (trace = buffer.poll()) != null; ) {
+                out.write(trace.toString());
+            }
+            if (dropped.get() > 0) {
+                out.write("# dropped " + dropped.get() + " traces on buffer overflow\n");
+            }
+        }
+    }
+}
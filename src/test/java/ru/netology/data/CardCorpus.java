@@ -0,0 +1,148 @@
+package ru.netology.data;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Заранее сгенерированный набор карт для нагрузки: все поля лежат подряд в одном byte[] в UTF-8,
+// границы полей - в int[]. Набор не меняется после сборки, поэтому читать его можно из любых потоков без блокировок.
+public class CardCorpus {
+    public enum Category {
+        APPROVED, DECLINED, UNKNOWN_NUMBER, INVALID_MONTH, EXPIRED_YEAR, INVALID_HOLDER, INVALID_CVC
+    }
+
+    private static final int fields = 5;
+    private final byte[] data;
+    private final int[] offsets;
+    private final Category[] categories;
+    private final int[][] indexesByCategory;
+    private volatile byte[][] bodies;
+
+    private CardCorpus(byte[] data, int[] offsets, Category[] categories) {
+        this.data = data;
+        this.offsets = offsets;
+        this.categories = categories;
+        this.indexesByCategory = new int[Category.values().length][];
+        for (Category category : Category.values()) {
+            indexesByCategory[category.ordinal()] = IntStream.range(0, categories.length)
+                    .filter(i -> categories[i] == category).toArray();
+        }
+    }
+
+    public static CardCorpus build(long seed, int perCategory, Category... categories) {
+        return DataHelper.withSeed(seed, () -> generateCorpus(perCategory, categories));
+    }
+
+    private static CardCorpus generateCorpus(int perCategory, Category... categories) {
+        var out = new ByteArrayOutputStream(perCategory * categories.length * 64);
+        int size = perCategory * categories.length;
+        int[] offsets = new int[size * fields + 1];
+        Category[] recordCategories = new Category[size];
+        int record = 0;
+        for (Category category : categories) {
+            for (int i = 0; i < perCategory; i++, record++) {
+                var cardInfo = generate(category);
+                String[] values = {cardInfo.getNumber(), cardInfo.getMonth(), cardInfo.getYear(), cardInfo.getHolder(), cardInfo.getCvc()};
+                for (int field = 0; field < fields; field++) {
+                    offsets[record * fields + field] = out.size();
+                    out.writeBytes(values[field].getBytes(StandardCharsets.UTF_8));
+                }
+                recordCategories[record] = category;
+            }
+        }
+        offsets[size * fields] = out.size();
+        return new CardCorpus(out.toByteArray(), offsets, recordCategories);
+    }
+
+    // те же варианты, что у генераторов DataHelper: валидная карта с одним испорченным полем
+    static DataHelper.CardInfo generate(Category category) {
+        var valid = category == Category.DECLINED ? DataHelper.getValidDeclinedCard() : DataHelper.getValidApprovedCard();
+        DataHelper.cleanListNow();
+        switch (category) {
+            case UNKNOWN_NUMBER:
+                return new DataHelper.CardInfo(DataHelper.generateLuhnValidCardNumber(), valid.getMonth(),
+                        valid.getYear(), valid.getHolder(), valid.getCvc());
+            case INVALID_MONTH:
+                return new DataHelper.CardInfo(valid.getNumber(), DataHelper.getInvalidRandomMonth(),
+                        valid.getYear(), valid.getHolder(), valid.getCvc());
+            case EXPIRED_YEAR:
+                return new DataHelper.CardInfo(valid.getNumber(), valid.getMonth(),
+                        DataHelper.previousYear(), valid.getHolder(), valid.getCvc());
+            case INVALID_HOLDER:
+                return new DataHelper.CardInfo(valid.getNumber(), valid.getMonth(),
+                        valid.getYear(), DataHelper.generateRandomCardsHolderNameLUCyrillic(), valid.getCvc());
+            case INVALID_CVC:
+                return new DataHelper.CardInfo(valid.getNumber(), valid.getMonth(),
+                        valid.getYear(), valid.getHolder(), DataHelper.generateRandomCVVOneDigit());
+            default:
+                return valid;
+        }
+    }
+
+    public int size() {
+        return categories.length;
+    }
+
+    public Category category(int index) {
+        return categories[index];
+    }
+
+    public DataHelper.CardInfo get(int index) {
+        int base = index * fields;
+        return new DataHelper.CardInfo(field(base), field(base + 1), field(base + 2), field(base + 3), field(base + 4));
+    }
+
+    // заранее сериализовать тела запросов для всего набора, чтобы под нагрузкой не тратить время на JSON
+    public synchronized CardCorpus preserialize() {
+        if (bodies == null) {
+            byte[][] result = new byte[size()][];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = CardInfoJson.toBytes(get(i));
+            }
+            bodies = result;
+        }
+        return this;
+    }
+
+    // массив общий для всех потоков, менять его нельзя
+    public byte[] body(int index) {
+        var bodies = this.bodies;
+        return bodies != null ? bodies[index] : CardInfoJson.toBytes(get(index));
+    }
+
+    private String field(int position) {
+        return new String(data, offsets[position], offsets[position + 1] - offsets[position], StandardCharsets.UTF_8);
+    }
+
+    // у каждого потока нагрузки свой курсор: одинаковый seed даёт одинаковую последовательность карт
+    public Cursor cursor(long seed, Category... categories) {
+        int[] pool = categories.length == 0
+                ? IntStream.range(0, size()).toArray()
+                : Arrays.stream(categories).flatMapToInt(c -> Arrays.stream(indexesByCategory[c.ordinal()])).toArray();
+        return new Cursor(new SplittableRandom(seed), pool);
+    }
+
+    public class Cursor {
+        private final SplittableRandom random;
+        private final int[] pool;
+
+        private Cursor(SplittableRandom random, int[] pool) {
+            this.random = random;
+            this.pool = pool;
+        }
+
+        public int nextIndex() {
+            return pool[random.nextInt(pool.length)];
+        }
+
+        public DataHelper.CardInfo next() {
+            return get(nextIndex());
+        }
+
+        public byte[] nextBody() {
+            return body(nextIndex());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ru.netology.data;
+
+import lombok.SneakyThrows;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Файл с готовыми телами запросов для повторяемых нагрузочных прогонов.
+// Формат: int magic, int version, затем записи [int длина][JSON CardInfo в UTF-8].
+// Тела сериализуются один раз при экспорте, при воспроизведении байты из отображённого в память файла уходят в запрос как есть.
+public class CardDataset {
+    private static final int magic = 0x43415244; // "CARD"
+    private static final int version = 1;
+    private static final int headerSize = 8;
+
+    private final MappedByteBuffer data;
+    private final int[] offsets;
+    private final ThreadLocal<ByteBuffer> views;
+
+    private CardDataset(MappedByteBuffer data, int[] offsets) {
+        this.data = data;
+        this.offsets = offsets;
+        this.views = ThreadLocal.withInitial(data::duplicate);
+    }
+
+    // Использование: CardDataset <файл> <количество записей> <seed>
+    public static void main(String[] args) {
+        var file = Path.of(args[0]);
+        int count = Integer.parseInt(args[1]);
+        long seed = Long.parseLong(args[2]);
+        export(file, count, seed, CardCorpus.Category.values());
+        System.out.println("Exported " + count + " cards to " + file.toAbsolutePath());
+    }
+
+    public static void export(Path file, int count, long seed, CardCorpus.Category... categories) {
+        DataHelper.withSeed(seed, () -> {
+            write(file, count, new SplittableRandom(seed), categories);
+            return null;
+        });
+    }
+
+    @SneakyThrows
+    private static void write(Path file, int count, SplittableRandom random, CardCorpus.Category... categories) {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 20))) {
+            out.writeInt(magic);
+            out.writeInt(version);
+            for (int i = 0; i < count; i++) {
+                var cardInfo = CardCorpus.generate(categories[random.nextInt(categories.length)]);
+                byte[] body = APIHelper.toBody(cardInfo);
+                out.writeInt(body.length);
+                out.write(body);
+            }
+        }
+    }
+
+    @SneakyThrows
+    public static CardDataset open(Path file) {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Dataset " + file + " is larger than 2 GB, export it in several files");
+            }
+            var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.getInt(0) != magic || data.getInt(4) != version) {
+                throw new IllegalArgumentException("Not a card dataset: " + file);
+            }
+            // индекс строится только по длинам записей, сами тела не разбираются
+            int[] offsets = new int[1024];
+            int count = 0;
+            for (int position = headerSize; position < data.limit(); position += 4 + data.getInt(position)) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = position;
+            }
+            return new CardDataset(data, Arrays.copyOf(offsets, count));
+        }
+    }
+
+    public int size() {
+        return offsets.length;
+    }
+
+    public byte[] body(int index) {
+        var view = views.get();
+        int position = offsets[index];
+        byte[] body = new byte[view.getInt(position)];
+        view.position(position + 4);
+        view.get(body);
+        return body;
+    }
+
+    // записи в порядке файла, по кругу; один поставщик можно делить между потоками нагрузки
+    public Supplier<byte[]> replay() {
+        var next = new AtomicLong();
+        return () -> body((int) (next.getAndIncrement() % offsets.length));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.netology.data;
+
+import java.util.Arrays;
+
+// JSON тела запроса для CardInfo без рефлексии и промежуточных String: поля пишутся сразу в UTF-8
+// в буфер потока. Результат совпадает с gson.toJson(cardInfo): тот же порядок полей, null-поля пропускаются,
+// экранирование как у Gson по умолчанию (включая <, >, &, =, ').
+public class CardInfoJson {
+    private static final byte[] hex = "0123456789abcdef".getBytes();
+    private static final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(Buffer::new);
+
+    private static class Buffer {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        private void put(byte b) {
+            ensure(1);
+            bytes[size++] = b;
+        }
+
+        private void put(String ascii) {
+            ensure(ascii.length());
+            for (int i = 0; i < ascii.length(); i++) {
+                bytes[size++] = (byte) ascii.charAt(i);
+            }
+        }
+    }
+
+    // буфер потока переиспользуется, наружу отдаётся одна копия точной длины
+    public static byte[] toBytes(DataHelper.CardInfo cardInfo) {
+        var buffer = buffers.get();
+        buffer.size = 0;
+        write(cardInfo, buffer);
+        return Arrays.copyOf(buffer.bytes, buffer.size);
+    }
+
+    private static void write(DataHelper.CardInfo cardInfo, Buffer out) {
+        out.put((byte) '{');
+        boolean first = field(out, "\"number\":", cardInfo.getNumber(), true);
+        first = field(out, "\"month\":", cardInfo.getMonth(), first);
+        first = field(out, "\"year\":", cardInfo.getYear(), first);
+        first = field(out, "\"holder\":", cardInfo.getHolder(), first);
+        field(out, "\"cvc\":", cardInfo.getCvc(), first);
+        out.put((byte) '}');
+    }
+
+    private static boolean field(Buffer out, String name, String value, boolean first) {
+        if (value == null) {
+            return first;
+        }
+        if (!first) {
+            out.put((byte) ',');
+        }
+        out.put(name);
+        string(out, value);
+        return false;
+    }
+
+    private static void string(Buffer out, String value) {
+        out.ensure(value.length() * 3 + 2);
+        out.put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                ascii(out, c);
+            } else if (c == '\u2028' || c == '\u2029') {
+                unicodeEscape(out, c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xc0 | c >> 6));
+                out.put((byte) (0x80 | c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xf0 | cp >> 18));
+                out.put((byte) (0x80 | cp >> 12 & 0x3f));
+                out.put((byte) (0x80 | cp >> 6 & 0x3f));
+                out.put((byte) (0x80 | cp & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?'); // одиночный суррогат, как при String.getBytes(UTF_8)
+            } else {
+                out.put((byte) (0xe0 | c >> 12));
+                out.put((byte) (0x80 | c >> 6 & 0x3f));
+                out.put((byte) (0x80 | c & 0x3f));
+            }
+        }
+        out.put((byte) '"');
+    }
+
+    private static void ascii(Buffer out, char c) {
+        switch (c) {
+            case '"':
+                out.put("\\\"");
+                return;
+            case '\\':
+                out.put("\\\\");
+                return;
+            case '\t':
+                out.put("\\t");
+                return;
+            case '\b':
+                out.put("\\b");
+                return;
+            case '\n':
+                out.put("\\n");
+                return;
+            case '\r':
+                out.put("\\r");
+                return;
+            case '\f':
+                out.put("\\f");
+                return;
+            case '<':
+            case '>':
+            case '&':
+            case '=':
+            case '\'':
+                unicodeEscape(out, c);
+                return;
+            default:
+                if (c < 0x20) {
+                    unicodeEscape(out, c);
+                } else {
+                    out.put((byte) c);
+                }
+        }
+    }
+
+    private static void unicodeEscape(Buffer out, char c) {
+        out.ensure(6);
+        out.put("\\u");
+        out.put(hex[c >> 12 & 0xf]);
+        out.put(hex[c >> 8 & 0xf]);
+        out.put(hex[c >> 4 & 0xf]);
+        out.put(hex[c & 0xf]);
+    }
+}
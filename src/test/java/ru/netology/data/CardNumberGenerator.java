@@ -0,0 +1,114 @@
+package ru.netology.data;
+
+import java.util.Random;
+
+// Номера карт с корректной (или намеренно испорченной) контрольной цифрой Луна для заданных диапазонов BIN.
+// Номер пишется в переиспользуемый буфер, поэтому next() ничего не выделяет в куче; строку даёт только nextString().
+public class CardNumberGenerator {
+    private final int length;
+    private final boolean grouped;
+    private final Random random;
+    private final long[] binFrom;
+    private final long[] binTo;
+    private final int[] binLength;
+    private final char[] buffer;
+    private final int[] digits;
+
+    // bins - префиксы или диапазоны префиксов одной длины: "4", "51-55", "2200-2204"
+    public CardNumberGenerator(int length, boolean grouped, Random random, String... bins) {
+        this.length = length;
+        this.grouped = grouped;
+        this.random = random;
+        this.binFrom = new long[bins.length];
+        this.binTo = new long[bins.length];
+        this.binLength = new int[bins.length];
+        for (int i = 0; i < bins.length; i++) {
+            var range = bins[i].split("-");
+            binFrom[i] = Long.parseLong(range[0]);
+            binTo[i] = Long.parseLong(range[range.length - 1]);
+            binLength[i] = range[0].length();
+            if (binLength[i] >= length || range[range.length - 1].length() != binLength[i] || binFrom[i] > binTo[i]) {
+                throw new IllegalArgumentException("Invalid BIN range " + bins[i] + " for card length " + length);
+            }
+        }
+        this.buffer = new char[grouped ? length + (length - 1) / 4 : length];
+        this.digits = new int[length];
+    }
+
+    public int length() {
+        return buffer.length;
+    }
+
+    // заполняет внутренний буфер и возвращает его; содержимое действительно до следующего вызова
+    public char[] next(boolean luhnValid) {
+        int bin = random.nextInt(binFrom.length);
+        long prefix = binFrom[bin] + (long) (random.nextDouble() * (binTo[bin] - binFrom[bin] + 1));
+        for (int i = binLength[bin] - 1; i >= 0; i--) {
+            digits[i] = (int) (prefix % 10);
+            prefix /= 10;
+        }
+        for (int i = binLength[bin]; i < length - 1; i++) {
+            digits[i] = random.nextInt(10);
+        }
+        int check = checkDigit(digits, length - 1);
+        digits[length - 1] = luhnValid ? check : (check + 1 + random.nextInt(9)) % 10;
+        for (int i = 0, position = 0; i < length; i++) {
+            if (grouped && i > 0 && i % 4 == 0) {
+                buffer[position++] = ' ';
+            }
+            buffer[position++] = (char) ('0' + digits[i]);
+        }
+        return buffer;
+    }
+
+    public void nextInto(char[] target, int offset, boolean luhnValid) {
+        System.arraycopy(next(luhnValid), 0, target, offset, buffer.length);
+    }
+
+    public String nextString(boolean luhnValid) {
+        return new String(next(luhnValid));
+    }
+
+    // контрольная цифра для первых count цифр
+    private static int checkDigit(int[] digits, int count) {
+        int sum = 0;
+        for (int i = count - 1, doubled = 1; i >= 0; i--, doubled ^= 1) {
+            int digit = digits[i];
+            if (doubled == 1) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    // пробелы между группами пропускаются, любой другой символ кроме цифр делает номер неверным
+    public static boolean isLuhnValid(CharSequence number) {
+        int sum = 0;
+        int count = 0;
+        boolean doubled = false;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            char c = number.charAt(i);
+            if (c == ' ') {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            count++;
+            int digit = c - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return count > 0 && sum % 10 == 0;
+    }
+}
@@ -1,39 +1,196 @@
 package ru.netology.data;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import org.apache.commons.dbutils.QueryRunner;
 import org.apache.commons.dbutils.ResultSetHandler;
-import org.apache.commons.dbutils.handlers.BeanListHandler;
+import ru.netology.metrics.Metrics;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class DBHelper {
+    private static HikariDataSource dataSource;
     private static QueryRunner runner;
-    private static Connection conn;
+    private static final String[] cleanupTables = {"credit_request_entity", "order_entity", "payment_entity"};
+    private static final ThreadLocal<Snapshot> snapshot = new ThreadLocal<>();
+    private static final int streamFetchSize = Integer.getInteger("db.fetch.size", 1000);
+    private static final Duration awaitTimeout = Duration.ofSeconds(Long.getLong("db.await.timeout", 15));
 
-    @SneakyThrows
-    public static void setup() {
-        runner = new QueryRunner();
-        conn = DriverManager.getConnection(System.getProperty("db.url"), "app", "pass");
+    public static synchronized void setup() {
+        if (dataSource != null) {
+            return;
+        }
+        var config = new HikariConfig();
+        config.setPoolName("diplom-db");
+        config.setJdbcUrl(System.getProperty("db.url"));
+        config.setUsername("app");
+        config.setPassword("pass");
+        config.setMaximumPoolSize(Integer.getInteger("db.pool.size", 4));
+        config.setMinimumIdle(1);
+        config.setConnectionTimeout(10_000);
+        config.setValidationTimeout(3_000);
+        config.setKeepaliveTime(30_000); // проверка простаивающих соединений
+        config.setLeakDetectionThreshold(Long.getLong("db.pool.leak-detection", 20_000));
+        if (isMySql()) {
+            // Connector/J склеивает пакет из обычных Statement в один multi-statement только при allowMultiQueries
+            // (rewriteBatchedStatements срабатывает лишь для пакетов больше 4 команд)
+            config.addDataSourceProperty("allowMultiQueries", "true");
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
+        dataSource = new HikariDataSource(config);
+        runner = new QueryRunner(dataSource);
+        Runtime.getRuntime().addShutdownHook(new Thread(DBHelper::shutdown, "diplom-db-shutdown"));
+    }
+
+    private static boolean isMySql() {
+        return System.getProperty("db.url", "").startsWith("jdbc:mysql:");
+    }
+
+    public static synchronized void shutdown() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+            runner = null;
+        }
     }
 
-    @SneakyThrows
     public static void cleanDatabase() {
         setup();
-        var sqlUpdateOne = "DELETE FROM credit_request_entity;";
-        var sqlUpdateTwo = "DELETE FROM order_entity;";
-        var sqlUpdateThree = "DELETE FROM payment_entity;";
-        runner.update(conn, sqlUpdateOne);
-        runner.update(conn, sqlUpdateTwo);
-        runner.update(conn, sqlUpdateThree);
+        // все три DELETE уходят на сервер одним пакетом за один round trip: в MySQL - multi-statement, в PostgreSQL - пакет протокола
+        Metrics.run("db.cleanDatabase", () -> {
+            try (var conn = dataSource.getConnection(); var statement = conn.createStatement()) {
+                for (String table : cleanupTables) {
+                    statement.addBatch("DELETE FROM " + table);
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    // снимок - отметка created самой свежей строки во всех трёх таблицах и id строк с этой отметкой.
+    // Цена не зависит от размера таблиц: MAX(created) и выборка строк на границе (обычно одна-две),
+    // запросы DBHelper затем выбирают только строки новее снимка (см. Query)
+    private static class Snapshot {
+        private final Timestamp watermark;
+        private final Set<String> boundaryIds;
+
+        private Snapshot(Timestamp watermark, Set<String> boundaryIds) {
+            this.watermark = watermark;
+            this.boundaryIds = boundaryIds;
+        }
+    }
+
+    public static void takeSnapshot() { // запоминаем уже существующие строки, тест увидит только новые
+        setup();
+        var watermarkQuery = "SELECT MAX(created) FROM (SELECT MAX(created) AS created FROM payment_entity "
+                + "UNION ALL SELECT MAX(created) FROM credit_request_entity UNION ALL SELECT MAX(created) FROM order_entity) m;";
+        var boundaryQuery = "SELECT id FROM payment_entity WHERE created >= ? UNION ALL SELECT id FROM credit_request_entity WHERE created >= ? "
+                + "UNION ALL SELECT id FROM order_entity WHERE created >= ?;";
+        snapshot.set(Metrics.call("db.takeSnapshot", () -> {
+            Timestamp watermark = runner.query(watermarkQuery, rs -> rs.next() ? rs.getTimestamp(1) : null);
+            if (watermark == null) { // таблицы пусты
+                return new Snapshot(null, Set.of());
+            }
+            Set<String> ids = runner.query(boundaryQuery, rs -> {
+                Set<String> boundary = new HashSet<>();
+                while (rs.next()) {
+                    boundary.add(rs.getString(1));
+                }
+                return boundary;
+            }, watermark, watermark, watermark);
+            return new Snapshot(watermark, ids);
+        }));
+    }
+
+    public static void releaseSnapshot() {
+        snapshot.remove();
     }
 
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    // Запрос вида select [WHERE ...] tail. При активном снимке первыми идут условия снимка: created не старше отметки,
+    // а строки ровно на отметке - только не из снимка. Строки, существовавшие до теста, отсекает сама БД
+    private static class Query {
+        private final String sql;
+        private final Object[] params;
+
+        private Query(String select, String where, String tail, Object[] params) {
+            var current = snapshot.get();
+            List<String> conditions = new ArrayList<>();
+            List<Object> allParams = new ArrayList<>();
+            if (current != null && current.watermark != null) {
+                conditions.add("created >= ?");
+                allParams.add(current.watermark);
+                if (!current.boundaryIds.isEmpty()) {
+                    conditions.add("(created > ? OR id NOT IN (" + String.join(", ", Collections.nCopies(current.boundaryIds.size(), "?")) + "))");
+                    allParams.add(current.watermark);
+                    allParams.addAll(current.boundaryIds);
+                }
+            }
+            if (where != null) {
+                conditions.add("(" + where + ")");
+            }
+            allParams.addAll(Arrays.asList(params));
+            this.sql = select + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                    + (tail == null ? "" : " " + tail) + ";";
+            this.params = allParams.toArray();
+        }
+    }
+
+    private static <T> ResultSetHandler<List<T>> rowsOf(RowMapper<T> mapper) {
+        return rs -> {
+            List<T> rows = new ArrayList<>();
+            while (rs.next()) {
+                rows.add(mapper.map(rs));
+            }
+            return rows;
+        };
+    }
+
+    private static <T> void streamRows(String operation, String select, RowMapper<T> mapper, Consumer<? super T> action) {
+        setup();
+        var query = new Query(select, null, null, new Object[0]);
+        Metrics.run("db." + operation, () -> {
+            try (var conn = dataSource.getConnection()) {
+                conn.setAutoCommit(false); // PostgreSQL читает курсором только внутри транзакции
+                try (var statement = conn.prepareStatement(query.sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(isMySql() ? Integer.MIN_VALUE : streamFetchSize);
+                    for (int i = 0; i < query.params.length; i++) {
+                        statement.setObject(i + 1, query.params[i]);
+                    }
+                    try (var rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            action.accept(mapper.map(rs));
+                        }
+                    }
+                }
+                conn.commit();
+            }
+        });
+    }
+
+    private static final String paymentSelect = "SELECT id, amount, created, status, transaction_id FROM payment_entity";
+    private static final String creditSelect = "SELECT id, bank_id, created, status FROM credit_request_entity";
+    private static final String orderSelect = "SELECT id, created, credit_id, payment_id FROM order_entity";
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -43,14 +200,18 @@ public class DBHelper {
         private Timestamp created;
         private String status;
         private String transaction_id;
+
+        static PaymentEntity map(ResultSet rs) throws SQLException {
+            return new PaymentEntity(rs.getString(1), rs.getInt(2), rs.getTimestamp(3), rs.getString(4), rs.getString(5));
+        }
     }
 
-    @SneakyThrows
     public static List<PaymentEntity> getPayments() {
-        setup();
-        var sqlQuery = "SELECT * FROM payment_entity ORDER BY created DESC;";
-        ResultSetHandler<List<PaymentEntity>> resultHandler = new BeanListHandler<>(PaymentEntity.class);
-        return runner.query(conn, sqlQuery, resultHandler);
+        return queryRows("getPayments", paymentSelect, null, "ORDER BY created DESC", PaymentEntity::map);
+    }
+
+    public static void forEachPayment(Consumer<? super PaymentEntity> action) {
+        streamRows("forEachPayment", paymentSelect, PaymentEntity::map, action);
     }
 
     @Data
@@ -61,14 +222,18 @@ public class DBHelper {
         private String bank_id;
         private Timestamp created;
         private String status;
+
+        static CreditRequestEntity map(ResultSet rs) throws SQLException {
+            return new CreditRequestEntity(rs.getString(1), rs.getString(2), rs.getTimestamp(3), rs.getString(4));
+        }
     }
 
-    @SneakyThrows
     public static List<CreditRequestEntity> getCreditsRequest() {
-        setup();
-        var sqlQuery = "SELECT * FROM credit_request_entity ORDER BY created DESC;";
-        ResultSetHandler<List<CreditRequestEntity>> resultHandler = new BeanListHandler<>(CreditRequestEntity.class);
-        return runner.query(conn, sqlQuery, resultHandler);
+        return queryRows("getCreditsRequest", creditSelect, null, "ORDER BY created DESC", CreditRequestEntity::map);
+    }
+
+    public static void forEachCreditRequest(Consumer<? super CreditRequestEntity> action) {
+        streamRows("forEachCreditRequest", creditSelect, CreditRequestEntity::map, action);
     }
 
     @Data
@@ -79,13 +244,101 @@ public class DBHelper {
         private Timestamp created;
         private String credit_id;
         private String payment_id;
+
+        static OrderEntity map(ResultSet rs) throws SQLException {
+            return new OrderEntity(rs.getString(1), rs.getTimestamp(2), rs.getString(3), rs.getString(4));
+        }
     }
 
-    @SneakyThrows
     public static List<OrderEntity> getOrders() {
+        return queryRows("getOrders", orderSelect, null, "ORDER BY created DESC", OrderEntity::map);
+    }
+
+    public static void forEachOrder(Consumer<? super OrderEntity> action) {
+        streamRows("forEachOrder", orderSelect, OrderEntity::map, action);
+    }
+
+    // operation - имя для Metrics, время запроса пишется в db.<operation>
+    private static <T> List<T> queryRows(String operation, String select, String where, String tail, RowMapper<T> mapper, Object... params) {
         setup();
-        var sqlQuery = "SELECT * FROM order_entity ORDER BY created DESC;";
-        ResultSetHandler<List<OrderEntity>> resultHandler = new BeanListHandler<>(OrderEntity.class);
-        return runner.query(conn, sqlQuery, resultHandler);
+        var query = new Query(select, where, tail, params);
+        return Metrics.call("db." + operation, () -> runner.query(query.sql, rowsOf(mapper), query.params));
+    }
+
+    private static <T> T firstOrNull(List<T> rows) {
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public static PaymentEntity getPaymentByTransactionId(String transactionId) {
+        return firstOrNull(queryRows("getPaymentByTransactionId", paymentSelect, "transaction_id = ?", null, PaymentEntity::map, transactionId));
+    }
+
+    public static CreditRequestEntity getCreditRequestByBankId(String bankId) {
+        return firstOrNull(queryRows("getCreditRequestByBankId", creditSelect, "bank_id = ?", null, CreditRequestEntity::map, bankId));
+    }
+
+    public static OrderEntity getOrderByPaymentId(String paymentId) {
+        return firstOrNull(queryRows("getOrderByPaymentId", orderSelect, "payment_id = ?", null, OrderEntity::map, paymentId));
+    }
+
+    public static OrderEntity getOrderByCreditId(String creditId) {
+        return firstOrNull(queryRows("getOrderByCreditId", orderSelect, "credit_id = ?", null, OrderEntity::map, creditId));
+    }
+
+    // границы окна: from включительно, to не включительно
+    public static List<PaymentEntity> getPaymentsCreatedBetween(Timestamp from, Timestamp to) {
+        return queryRows("getPaymentsCreatedBetween", paymentSelect, "created >= ? AND created < ?", "ORDER BY created DESC",
+                PaymentEntity::map, from, to);
+    }
+
+    public static List<CreditRequestEntity> getCreditsRequestCreatedBetween(Timestamp from, Timestamp to) {
+        return queryRows("getCreditsRequestCreatedBetween", creditSelect, "created >= ? AND created < ?", "ORDER BY created DESC",
+                CreditRequestEntity::map, from, to);
+    }
+
+    public static List<OrderEntity> getOrdersCreatedBetween(Timestamp from, Timestamp to) {
+        return queryRows("getOrdersCreatedBetween", orderSelect, "created >= ? AND created < ?", "ORDER BY created DESC",
+                OrderEntity::map, from, to);
+    }
+
+    public static List<PaymentEntity> getLatestPayments(int limit) {
+        return queryRows("getLatestPayments", paymentSelect, null, "ORDER BY created DESC LIMIT ?", PaymentEntity::map, limit);
+    }
+
+    public static List<CreditRequestEntity> getLatestCreditsRequest(int limit) {
+        return queryRows("getLatestCreditsRequest", creditSelect, null, "ORDER BY created DESC LIMIT ?", CreditRequestEntity::map, limit);
+    }
+
+    public static List<OrderEntity> getLatestOrders(int limit) {
+        return queryRows("getLatestOrders", orderSelect, null, "ORDER BY created DESC LIMIT ?", OrderEntity::map, limit);
+    }
+
+    @SneakyThrows
+    public static <T> List<T> awaitRows(Supplier<List<T>> query, Predicate<List<T>> condition) {
+        long deadline = System.nanoTime() + awaitTimeout.toNanos();
+        long pause = 10;
+        while (true) {
+            var rows = query.get();
+            if (condition.test(rows)) {
+                return rows;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new AssertionError("Expected rows did not appear in the database within " + awaitTimeout);
+            }
+            Thread.sleep(pause); // опрос с нарастающим интервалом: 10, 20, 40 ... 500 мс
+            pause = Math.min(pause * 2, 500);
+        }
+    }
+
+    // ждём только появления строк заказа и платежа/заявки: связь между ними проверяют сами тесты,
+    // иначе при неверной связи тест упирался бы в таймаут вместо точного assertEquals
+    public static OrderEntity awaitOrderForPayment() {
+        return Metrics.call("db.awaitOrderForPayment",
+                () -> awaitRows(() -> getLatestPayments(1).isEmpty() ? List.<OrderEntity>of() : getLatestOrders(1), orders -> !orders.isEmpty())).get(0);
+    }
+
+    public static OrderEntity awaitOrderForCredit() {
+        return Metrics.call("db.awaitOrderForCredit",
+                () -> awaitRows(() -> getLatestCreditsRequest(1).isEmpty() ? List.<OrderEntity>of() : getLatestOrders(1), orders -> !orders.isEmpty())).get(0);
     }
 }
@@ -6,22 +6,79 @@ import org.apache.commons.lang3.RandomStringUtils;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.Locale;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Random;
+import java.util.function.Supplier;
 
 public class DataHelper {
 
-    static ArrayList<Integer> month = new ArrayList<>();
-    private static Faker faker = new Faker(new Locale("en"));
-    private static Faker fakerCyrillic = new Faker(new Locale("ru"));
-    private static LocalDate date = LocalDate.now();
+    // Все случайные значения выводятся из data.seed: при одном и том же seed прогон получает те же данные.
+    // Генераторы свои у каждого потока, поэтому параллельные тесты не делят между собой Random и Faker.
+    private static final long rootSeed = Long.getLong("data.seed", System.nanoTime());
+    private static final ThreadLocal<Generators> generators =
+            ThreadLocal.withInitial(() -> new Generators(seedFor(Thread.currentThread().getName())));
+    private static final LocalDate date = LocalDate.now();
+    private static final String[] cardBins = {"2200-2204", "4", "51-55"}; // Мир, Visa, Mastercard
 
 
     private DataHelper() {
 
     }
 
+    private static class Generators {
+        private final Random random = new Random();
+        private final Random fakerRandom = new Random();
+        private final Random fakerCyrillicRandom = new Random();
+        private final Faker faker = new Faker(new Locale("en"), fakerRandom);
+        private final Faker fakerCyrillic = new Faker(new Locale("ru"), fakerCyrillicRandom);
+        private final CardNumberGenerator cardNumbers = new CardNumberGenerator(16, true, random, cardBins);
+        private int month;
+
+        Generators(long seed) {
+            reseed(seed);
+        }
+
+        // Faker дорого создавать, поэтому при смене seed пересеиваются только его Random
+        void reseed(long seed) {
+            random.setSeed(seed);
+            fakerRandom.setSeed(mix(seed + 1));
+            fakerCyrillicRandom.setSeed(mix(seed + 2));
+            month = 0;
+        }
+    }
+
+    public static long getRootSeed() {
+        return rootSeed;
+    }
+
+    public static long seedFor(String key) {
+        return mix(rootSeed ^ mix(key.hashCode()));
+    }
+
+    public static void reseed(long seed) {
+        generators.get().reseed(seed);
+    }
+
+    public static <T> T withSeed(long seed, Supplier<T> action) { // генерация на отдельном seed, не сбивая текущий поток
+        var previous = generators.get();
+        generators.set(new Generators(seed));
+        try {
+            return action.get();
+        } finally {
+            generators.set(previous);
+        }
+    }
+
+    private static long mix(long z) { // финализатор SplitMix64
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int nextInt(int origin, int bound) {
+        return origin + generators.get().random.nextInt(bound - origin);
+    }
+
     @Value
     public static class CardInfo {
         private final String number;
@@ -60,33 +117,41 @@ public class DataHelper {
     }
 
     public static void cleanListNow() {
-        month.clear();
+        generators.get().month = 0;
     }
 
     public static String generateRandomCardNumberElevenDigits() {
-        return faker.numerify("#### #### ###");
+        return generators.get().faker.numerify("#### #### ###");
     }
 
     public static String generateRandomCardNumberTwelveDigits() {
-        return faker.numerify("#### #### ####");
+        return generators.get().faker.numerify("#### #### ####");
     }
 
     public static String generateRandomCardNumberSixteenDigits() {
-        return faker.numerify("#### #### #### ####");
+        return generators.get().faker.numerify("#### #### #### ####");
     }
 
     public static String generateRandomCardNumberNineteenDigits() {
-        return faker.numerify("#### #### #### #### ###");
+        return generators.get().faker.numerify("#### #### #### #### ###");
     }
 
     public static String generateRandomCardNumberTwentyDigits() {
-        return faker.numerify("#### #### #### #### ####");
+        return generators.get().faker.numerify("#### #### #### #### ####");
+    }
+
+    public static String generateLuhnValidCardNumber() { // номер с верной контрольной цифрой, неизвестный банку
+        return generators.get().cardNumbers.nextString(true);
+    }
+
+    public static String generateLuhnInvalidCardNumber() { // номер с неверной контрольной цифрой
+        return generators.get().cardNumbers.nextString(false);
     }
 
     public static String getValidRandomMonth() {
 
-        int random = ThreadLocalRandom.current().nextInt(1, 12);
-        month.add(random);
+        int random = nextInt(1, 12);
+        generators.get().month = random;
         String rMonth;
         if (random < 10) {
             rMonth = "0" + random;
@@ -101,11 +166,11 @@ public class DataHelper {
     }
 
     public static String getInvalidRandomMonth() {
-        return Integer.toString(ThreadLocalRandom.current().nextInt(13, 99));
+        return Integer.toString(nextInt(13, 99));
     }
 
     public static String getMonthOneToNine() { //генерация невалидного месяца больше 12 и менее 100
-        return Integer.toString(ThreadLocalRandom.current().nextInt(1, 9));
+        return Integer.toString(nextInt(1, 9));
     }
 
     public static String getMonthZero() { //генерация невалидного месяца больше 12 и менее 100
@@ -129,11 +194,13 @@ public class DataHelper {
 
     public static String getValidRandomYear() {
 
-        int addRandom = ThreadLocalRandom.current().nextInt(0, 3);
+        int addRandom = nextInt(0, 3);
         int getMonth = date.getMonthValue();
         int getYear = date.getYear();
-        String arrayMonth = month.toString().replaceAll("(^\\[|\\]$)", "");
-        int generateMonth = Integer.parseInt(arrayMonth);
+        int generateMonth = generators.get().month;
+        if (generateMonth == 0) {
+            throw new IllegalStateException("getValidRandomMonth() must be called before getValidRandomYear()");
+        }
         int currencyYear;
         int randomYear = 0;
         if (getMonth > generateMonth) {
@@ -166,7 +233,7 @@ public class DataHelper {
     }
 
     public static String generateValidRandomCardsHolder() { // Владелец валидный вариант
-        return faker.name().fullName().toUpperCase();
+        return generators.get().faker.name().fullName().toUpperCase();
     }
 
     public static String generateEmptyHolder() { // Владелец валидный вариант
@@ -174,19 +241,19 @@ public class DataHelper {
     }
 
     public static String generateHolderWithDash() { // с использованием дефиса
-        return faker.letterify("??????-?????").toUpperCase();
+        return generators.get().faker.letterify("??????-?????").toUpperCase();
     }
 
     public static String generateHolderWithDoubleSpace() { // с использованием дефиса
-        return faker.letterify("??????  ?????").toUpperCase();
+        return generators.get().faker.letterify("??????  ?????").toUpperCase();
     }
 
     public static String generateHolderWithSpaceBarBefore() { // с использованием пробела до
-        return " " + faker.name().fullName().toUpperCase();
+        return " " + generators.get().faker.name().fullName().toUpperCase();
     }
 
     public static String generateHolderWithSpaceBarAfter() { // с использованием пробела д после
-        return faker.name().fullName().toUpperCase() + " ";
+        return generators.get().faker.name().fullName().toUpperCase() + " ";
     }
 
     public static String generateHolderWithUnembossedName() { // при неименной карте
@@ -198,31 +265,31 @@ public class DataHelper {
     }
 
     public static String generateHolderWithUpperAndLowerCaseLatin() { // Ввод спец. символов
-        return faker.name().fullName();
+        return generators.get().faker.name().fullName();
     }
 
     public static String generateRandomCardsHolderNameLUCyrillic() { // Для сценария с проверкой ввода владельца на кириллице верхнего и нижнего регистра
-        return fakerCyrillic.name().fullName();
+        return generators.get().fakerCyrillic.name().fullName();
     }
 
     public static String generateRandomCardsHolderWithDigits() {
-        return RandomStringUtils.randomAlphanumeric(12).toUpperCase();
+        return RandomStringUtils.random(12, 0, 0, true, true, null, generators.get().random).toUpperCase();
     }
 
     public static String generateRandomCardsHolderWithOneLetter() { // Генерация владельца из случайной буквы верхнего регистра
-        return faker.letterify("?").toUpperCase();
+        return generators.get().faker.letterify("?").toUpperCase();
     }
 
     public static String generateRandomCVV() { // Генерация валидного CVV
-        return faker.number().digits(3);
+        return generators.get().faker.number().digits(3);
     }
 
     public static String generateRandomCVVOneDigit() { // Генерация валидного CVV
-        return faker.number().digits(1);
+        return generators.get().faker.number().digits(1);
     }
 
     public static String generateRandomCVVTwoDigits() { // Генерация валидного CVV
-        return faker.number().digits(2);
+        return generators.get().faker.number().digits(2);
     }
 
     public static String generateCVVEmpty() { // Генерация невалидного CVV из 0
@@ -0,0 +1,30 @@
+package ru.netology.extension;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.netology.data.ApiCapture;
+
+// Запросы API теста копятся в памяти и прикладываются к отчёту Allure, только если тест упал
+public class ApiCaptureExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (ApiCapture.getMode() != ApiCapture.Mode.OFF) {
+            ApiCapture.beginTest();
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        boolean failed = context.getExecutionException().isPresent();
+        var traces = ApiCapture.endTest(failed);
+        if (failed) {
+            int i = 1;
+            for (var trace : traces) {
+                Allure.addAttachment("API " + i++ + ": " + trace.getMethod() + " " + trace.getUri(), trace.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.netology.extension;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.netology.data.DataHelper;
+
+// Перед каждым тестом DataHelper пересеивается от data.seed и id теста: данные теста не зависят
+// ни от порядка запуска, ни от потока, в котором он выполнился. Повторить прогон: -Ddata.seed=<значение из отчёта>
+public class DataSeedExtension implements BeforeEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        DataHelper.reseed(DataHelper.seedFor(context.getUniqueId()));
+        Allure.addAttachment("data.seed", String.valueOf(DataHelper.getRootSeed()));
+    }
+}
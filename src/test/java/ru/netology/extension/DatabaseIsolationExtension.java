@@ -0,0 +1,70 @@
+package ru.netology.extension;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import ru.netology.data.DBHelper;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class DatabaseIsolationExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback, AfterAllCallback {
+    // snapshot - строки не удаляются после каждого теста, DBHelper отдаёт только созданные в ходе теста.
+    // Снимок - отметка MAX(created) по таблицам, поэтому стоимость не растёт с размером таблиц, но строки,
+    // которые приложение запишет с created раньше отметки (например, при расхождении часов), тест не увидит
+    // delete - прежнее поведение, физическая очистка таблиц после каждого теста
+    private static final boolean snapshotMode = !"delete".equalsIgnoreCase(System.getProperty("db.isolation"));
+    // тесты с @ExclusiveDatabase берут блокировку на запись, остальные - на чтение и идут параллельно друг с другом
+    private static final ReentrantReadWriteLock databaseLock = new ReentrantReadWriteLock(true);
+    private static final ExtensionContext.Namespace namespace = ExtensionContext.Namespace.create(DatabaseIsolationExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        cleanExclusively();
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        var lock = isExclusive(context) ? databaseLock.writeLock() : databaseLock.readLock();
+        lock.lock();
+        context.getStore(namespace).put(Lock.class, lock);
+        if (snapshotMode) {
+            DBHelper.takeSnapshot();
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        try {
+            if (snapshotMode) {
+                DBHelper.releaseSnapshot();
+            } else {
+                DBHelper.cleanDatabase();
+            }
+        } finally {
+            context.getStore(namespace).remove(Lock.class, Lock.class).unlock();
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        cleanExclusively();
+    }
+
+    private static boolean isExclusive(ExtensionContext context) {
+        return AnnotationSupport.isAnnotated(context.getElement(), ExclusiveDatabase.class)
+                || AnnotationSupport.isAnnotated(context.getTestClass(), ExclusiveDatabase.class);
+    }
+
+    private static void cleanExclusively() {
+        databaseLock.writeLock().lock();
+        try {
+            DBHelper.cleanDatabase();
+        } finally {
+            databaseLock.writeLock().unlock();
+        }
+    }
+}
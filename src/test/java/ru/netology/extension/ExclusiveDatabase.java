@@ -0,0 +1,12 @@
+package ru.netology.extension;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Тест проверяет количество строк в БД, поэтому при параллельном запуске выполняется без других тестов
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExclusiveDatabase {
+}
@@ -0,0 +1,40 @@
+package ru.netology.extension;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.netology.gate.GateSimulator;
+
+// При -Dgate.embedded=true поднимает GateSimulator вместо контейнера node-app, один раз на весь прогон
+public class GateSimulatorExtension implements BeforeAllCallback {
+    private static final boolean enabled = Boolean.getBoolean("gate.embedded");
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!enabled) {
+            return;
+        }
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(RunningGate.class, key -> RunningGate.start(), RunningGate.class);
+    }
+
+    private static class RunningGate implements ExtensionContext.Store.CloseableResource {
+        private final GateSimulator gate;
+
+        private RunningGate(GateSimulator gate) {
+            this.gate = gate;
+        }
+
+        @SneakyThrows
+        static RunningGate start() {
+            var gate = GateSimulator.fromSystemProperties();
+            gate.start(Integer.getInteger("gate.port", 9999));
+            return new RunningGate(gate);
+        }
+
+        @Override
+        public void close() {
+            gate.stop();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.netology.extension;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResultContainer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.netology.metrics.Metrics;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+// В конце прогона выгружает Metrics в build/metrics.json (-Dmetrics.file) и прикладывает их в Allure
+// к последнему завершённому тесту как tear down "Run metrics", не добавляя в отчёт лишних тестов
+public class MetricsExtension implements BeforeAllCallback, AfterEachCallback {
+    private static final Path file = Path.of(System.getProperty("metrics.file", "build/metrics.json"));
+    private static final AtomicReference<String> lastTestUuid = new AtomicReference<>();
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(Export.class, key -> new Export(), Export.class);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Allure.getLifecycle().getCurrentTestCase().ifPresent(lastTestUuid::set);
+    }
+
+    private static class Export implements ExtensionContext.Store.CloseableResource {
+
+        @Override
+        @SneakyThrows
+        public void close() {
+            if (Metrics.isEmpty()) {
+                return;
+            }
+            var json = Metrics.toJson();
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, json);
+
+            var testUuid = lastTestUuid.get();
+            if (testUuid == null) {
+                return;
+            }
+            // тест уже записан, поэтому метрики идут в отдельный контейнер с фикстурой, привязанный к нему
+            var lifecycle = Allure.getLifecycle();
+            var containerUuid = UUID.randomUUID().toString();
+            var fixtureUuid = UUID.randomUUID().toString();
+            lifecycle.startTestContainer(new TestResultContainer().setUuid(containerUuid).setName("Run metrics")
+                    .setChildren(List.of(testUuid)));
+            lifecycle.startTearDownFixture(containerUuid, fixtureUuid, new FixtureResult().setName("Run metrics"));
+            lifecycle.addAttachment("metrics.json", "application/json", "json", json.getBytes(StandardCharsets.UTF_8));
+            lifecycle.updateFixture(fixtureUuid, fixture -> fixture.setStatus(Status.PASSED));
+            lifecycle.stopFixture(fixtureUuid);
+            lifecycle.stopTestContainer(containerUuid);
+            lifecycle.writeTestContainer(containerUuid);
+        }
+    }
+}
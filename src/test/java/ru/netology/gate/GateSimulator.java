@@ -0,0 +1,161 @@
+package ru.netology.gate;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Замена gate-simulator/app.js внутри JVM: те же /payment и /credit, те же карты из data.json
+public class GateSimulator {
+    private final Map<String, String> statusByNumber;
+    private final LongSupplier latency;
+    private final double errorRate;
+    private final int throttleRps;
+    private HttpServer server;
+    private ScheduledExecutorService scheduler;
+    private long throttleSecond;
+    private int throttleCount;
+
+    public GateSimulator(Map<String, String> statusByNumber, LongSupplier latency, double errorRate, int throttleRps) {
+        this.statusByNumber = statusByNumber;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.throttleRps = throttleRps;
+    }
+
+    public static GateSimulator fromSystemProperties() throws IOException {
+        return new GateSimulator(
+                loadCards(Path.of(System.getProperty("gate.data", "gate-simulator/data.json"))),
+                parseLatency(System.getProperty("gate.latency", "fixed:0")),
+                Double.parseDouble(System.getProperty("gate.error.rate", "0")),
+                Integer.getInteger("gate.throttle.rps", 0));
+    }
+
+    public static Map<String, String> loadCards(Path data) throws IOException {
+        Map<String, String> cards = new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(data, StandardCharsets.UTF_8)) {
+            for (JsonElement item : JsonParser.parseReader(reader).getAsJsonArray()) {
+                var card = item.getAsJsonObject();
+                cards.put(card.get("number").getAsString(), card.get("status").getAsString());
+            }
+        }
+        return cards;
+    }
+
+    // fixed:50, uniform:20-200, exponential:100 (среднее), lognormal:80:0.5 (медиана и сигма), всё в миллисекундах
+    public static LongSupplier parseLatency(String spec) {
+        var parts = spec.split(":");
+        switch (parts[0]) {
+            case "fixed":
+                long fixed = Long.parseLong(parts[1]);
+                return () -> fixed;
+            case "uniform":
+                var bounds = parts[1].split("-");
+                long min = Long.parseLong(bounds[0]);
+                long max = Long.parseLong(bounds[1]);
+                return () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+            case "exponential":
+                double mean = Double.parseDouble(parts[1]);
+                return () -> Math.round(-mean * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+            case "lognormal":
+                double median = Double.parseDouble(parts[1]);
+                double sigma = Double.parseDouble(parts[2]);
+                return () -> Math.round(median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+            default:
+                throw new IllegalArgumentException("Unknown gate latency distribution: " + spec);
+        }
+    }
+
+    public void start(int port) throws IOException {
+        scheduler = Executors.newScheduledThreadPool(2);
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/payment", this::handle);
+        server.createContext("/credit", this::handle);
+        server.setExecutor(scheduler);
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        scheduler.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 404, null);
+            return;
+        }
+        String status;
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement number = JsonParser.parseReader(reader).getAsJsonObject().get("number");
+            status = number == null || number.isJsonNull() ? null : statusByNumber.get(number.getAsString());
+        } catch (RuntimeException e) {
+            status = null;
+        }
+        int code;
+        String body = null;
+        if (isThrottled()) {
+            code = 503;
+        } else if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            code = 500;
+        } else if (status == null) {
+            code = 400;
+        } else {
+            code = 200;
+            var response = new JsonObject();
+            response.addProperty("id", UUID.randomUUID().toString());
+            response.addProperty("status", status);
+            body = response.toString();
+        }
+        // ответ отправляется по таймеру, поток сервера не спит во время задержки
+        int responseCode = code;
+        String responseBody = body;
+        scheduler.schedule(() -> send(exchange, responseCode, responseBody), Math.max(0, latency.getAsLong()), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized boolean isThrottled() {
+        if (throttleRps <= 0) {
+            return false;
+        }
+        long second = System.nanoTime() / 1_000_000_000L;
+        if (second != throttleSecond) {
+            throttleSecond = second;
+            throttleCount = 0;
+        }
+        return ++throttleCount > throttleRps;
+    }
+
+    private static void send(HttpExchange exchange, int code, String body) {
+        try {
+            if (body == null) {
+                exchange.sendResponseHeaders(code, -1);
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(code, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (IOException e) {
+            // клиент уже закрыл соединение
+        } finally {
+            exchange.close();
+        }
+    }
+}
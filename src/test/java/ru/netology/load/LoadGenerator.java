@@ -0,0 +1,134 @@
+package ru.netology.load;
+
+import lombok.SneakyThrows;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import ru.netology.data.APIHelper;
+import ru.netology.data.DataHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+public class LoadGenerator {
+    private final String path;
+    private final Supplier<byte[]> bodies;
+    private final int concurrency;
+    private final int targetRps;
+    private final Duration duration;
+    private boolean async;
+
+    // targetRps = 0 - без ограничения частоты, каждый из concurrency потоков шлёт запросы подряд
+    public LoadGenerator(String path, Supplier<DataHelper.CardInfo> cards, int concurrency, int targetRps, Duration duration) {
+        this(path, concurrency, targetRps, duration, () -> APIHelper.toBody(cards.get()));
+    }
+
+    // тела запросов уже сериализованы, например воспроизведение CardDataset
+    public LoadGenerator(String path, int concurrency, int targetRps, Duration duration, Supplier<byte[]> bodies) {
+        this.path = path;
+        this.bodies = bodies;
+        this.concurrency = concurrency;
+        this.targetRps = targetRps;
+        this.duration = duration;
+    }
+
+    // async = true - запросы отправляет один поток через неблокирующий клиент,
+    // concurrency ограничивает число запросов в полёте, а не число потоков
+    public LoadGenerator async(boolean async) {
+        this.async = async;
+        return this;
+    }
+
+    public LoadReport run() {
+        Histogram latency = new ConcurrentHistogram(3);
+        var requests = new AtomicLong();
+        var errors = new AtomicLong();
+        long interval = targetRps > 0 ? TimeUnit.SECONDS.toNanos(1) / targetRps : 0;
+        long start = System.nanoTime();
+        if (async) {
+            runAsync(latency, requests, errors, interval, start);
+        } else {
+            runBlocking(latency, requests, errors, interval, start);
+        }
+        long elapsed = System.nanoTime() - start;
+        return new LoadReport(path, requests.get(), errors.get(), Duration.ofNanos(elapsed), latency);
+    }
+
+    @SneakyThrows
+    private void runBlocking(Histogram latency, AtomicLong requests, AtomicLong errors, long interval, long start) {
+        long end = start + duration.toNanos();
+        var nextSlot = new AtomicLong(start);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> {
+                while (true) {
+                    long scheduled = interval > 0 ? nextSlot.getAndAdd(interval) : System.nanoTime();
+                    if (scheduled >= end) {
+                        return;
+                    }
+                    LockSupport.parkNanos(scheduled - System.nanoTime());
+                    var body = bodies.get();
+                    try {
+                        if (APIHelper.sendRawRequest(body, path) >= 500) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                    // задержка считается от запланированного момента отправки, а не от фактического,
+                    // чтобы отставание генератора не скрывало медленные ответы (coordinated omission)
+                    latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+                    requests.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+    }
+
+    @SneakyThrows
+    private void runAsync(Histogram latency, AtomicLong requests, AtomicLong errors, long interval, long start) {
+        long end = start + duration.toNanos();
+        var inFlight = new Semaphore(concurrency);
+        long nextSlot = start;
+        while (true) {
+            long scheduled = interval > 0 ? nextSlot : System.nanoTime();
+            if (scheduled >= end) {
+                break;
+            }
+            nextSlot += interval;
+            LockSupport.parkNanos(scheduled - System.nanoTime());
+            inFlight.acquire();
+            try {
+                APIHelper.sendRawRequestAsync(bodies.get(), path).whenComplete((status, error) -> {
+                    if (error != null || status >= 500) {
+                        errors.incrementAndGet();
+                    }
+                    latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+                    requests.incrementAndGet();
+                    inFlight.release();
+                });
+            } catch (RuntimeException e) {
+                // запрос не ушёл (нет тела, клиент отклонил запрос) - ошибка, а разрешение возвращается сразу,
+                // иначе ожидание ответов в конце прогона никогда не закончится
+                errors.incrementAndGet();
+                latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+                requests.incrementAndGet();
+                inFlight.release();
+            }
+        }
+        inFlight.acquire(concurrency); // ждём ответы на все отправленные запросы
+    }
+}
@@ -0,0 +1,36 @@
+package ru.netology.load;
+
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+@Value
+public class LoadReport {
+    String path;
+    long requests;
+    long errors;
+    Duration elapsed;
+    Histogram latency; // микросекунды
+
+    public double getThroughput() {
+        return requests * 1_000_000_000.0 / elapsed.toNanos();
+    }
+
+    public double getErrorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    public double getPercentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d requests in %.1f s, %.1f req/s, errors %.2f%%%n"
+                        + "latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+                path, requests, elapsed.toMillis() / 1000.0, getThroughput(), getErrorRate() * 100,
+                getPercentileMillis(50), getPercentileMillis(90), getPercentileMillis(99), getPercentileMillis(99.9),
+                latency.getMaxValue() / 1000.0);
+    }
+}
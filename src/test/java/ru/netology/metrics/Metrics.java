@@ -0,0 +1,78 @@
+package ru.netology.metrics;
+
+import com.google.gson.GsonBuilder;
+import lombok.SneakyThrows;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Время шагов тестов по операциям (api.*, db.*, ui.*), по гистограмме HdrHistogram в микросекундах на операцию.
+// Итог прогона выгружает MetricsExtension.
+public class Metrics {
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public interface Action<T> {
+        T call() throws Exception;
+    }
+
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    @SneakyThrows
+    public static <T> T call(String operation, Action<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.call();
+        } finally {
+            record(operation, System.nanoTime() - start);
+        }
+    }
+
+    @SneakyThrows
+    public static void run(String operation, Step step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            record(operation, System.nanoTime() - start);
+        }
+    }
+
+    public static void record(String operation, long nanos) {
+        histograms.computeIfAbsent(operation, key -> new ConcurrentHistogram(3))
+                .recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public static boolean isEmpty() {
+        return histograms.isEmpty();
+    }
+
+    // операции по алфавиту, времена в миллисекундах
+    public static String toJson() {
+        Map<String, Map<String, Object>> report = new TreeMap<>();
+        histograms.forEach((operation, histogram) -> {
+            var copy = histogram.copy();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", copy.getTotalCount());
+            stats.put("mean", copy.getMean() / 1000.0);
+            stats.put("p50", millis(copy, 50));
+            stats.put("p90", millis(copy, 90));
+            stats.put("p99", millis(copy, 99));
+            stats.put("p999", millis(copy, 99.9));
+            stats.put("max", copy.getMaxValue() / 1000.0);
+            stats.put("total", copy.getTotalCount() * copy.getMean() / 1000.0);
+            report.put(operation, stats);
+        });
+        return new GsonBuilder().setPrettyPrinting().create().toJson(report);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,102 @@
+package ru.netology.page;
+
+import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverProvider;
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import ru.netology.metrics.Metrics;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+// Открытие страницы приложения для UI тестов. Selenide держит по одному WebDriver на поток до конца прогона,
+// здесь браузер потока один раз настраивается перед первой навигацией (см. browser.* ниже).
+// Сбросить страницу без навигации нельзя: у открытой формы нет кнопки закрытия, а маршрут в приложении один,
+// форма пропадает только при новой загрузке документа. Поэтому каждый тест открывает страницу заново
+public class BrowserSession {
+    private static final String appUrl = "http://localhost:8080/";
+
+    // -Dbrowser.block.assets=true - картинки, шрифты и иконки не загружаются (CDP Network.setBlockedURLs, Chrome/Chromium)
+    private static final boolean blockAssets = Boolean.getBoolean("browser.block.assets");
+    private static final List<String> blockedUrls = List.of(
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.svg", "*.ico", "*.woff", "*.woff2", "*.ttf");
+    // -Dbrowser.cache.dir=<каталог> - дисковый кэш Chrome: бандл приложения не скачивается заново в новых сессиях.
+    // У каждого потока свой подкаталог: живые процессы Chrome не могут делить один каталог кэша
+    private static final String cacheDir = System.getProperty("browser.cache.dir", "");
+    // -Dbrowser.timings=true - время загрузки документа и ресурсов (Performance API) пишется в Metrics как net.*
+    private static final boolean recordTimings = Boolean.getBoolean("browser.timings");
+    private static final String timingsScript =
+            "var entries = performance.getEntriesByType('navigation').concat(performance.getEntriesByType('resource'));"
+            + "performance.clearResourceTimings();"
+            + "return entries.map(function (e) {"
+            + "  return [e.entryType === 'navigation' ? 'document' : e.initiatorType, e.duration, e.transferSize === 0];"
+            + "});";
+
+    private static final Set<WebDriver> configured = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        if (!cacheDir.isEmpty() && "chrome".equalsIgnoreCase(Configuration.browser)) {
+            Configuration.browser = CachedChromeProvider.class.getName();
+        }
+    }
+
+    // Chrome с каталогом кэша потока; остальные настройки - из capabilities, которые собрал Selenide
+    public static class CachedChromeProvider implements WebDriverProvider {
+        @Override
+        public WebDriver createDriver(Capabilities capabilities) {
+            var options = new ChromeOptions().merge(capabilities);
+            if (Configuration.headless) { // для своего провайдера Selenide сам headless не включает
+                options.addArguments("--headless=new");
+            }
+            var threadDir = Thread.currentThread().getName().replaceAll("[^A-Za-z0-9_.-]", "_");
+            options.addArguments("--disk-cache-dir=" + Path.of(cacheDir, threadDir).toAbsolutePath());
+            return new ChromeDriver(options);
+        }
+    }
+
+    public static CardPage openCardPage() {
+        if (blockAssets) {
+            configureNetwork(WebDriverRunner.getWebDriver()); // запускает браузер потока, если его ещё нет
+        }
+        Selenide.open(appUrl);
+        if (recordTimings) {
+            recordTimings();
+        }
+        return new CardPage();
+    }
+
+    // один раз на браузер, до первой навигации
+    private static void configureNetwork(WebDriver driver) {
+        if (!configured.add(driver)) {
+            return;
+        }
+        var raw = driver;
+        while (raw instanceof WrapsDriver) {
+            raw = ((WrapsDriver) raw).getWrappedDriver();
+        }
+        if (raw instanceof HasCdp) { // в других браузерах ресурсы грузятся как обычно
+            var cdp = (HasCdp) raw;
+            cdp.executeCdpCommand("Network.enable", Map.of());
+            cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", blockedUrls));
+        }
+    }
+
+    private static void recordTimings() {
+        List<List<Object>> entries = Selenide.executeJavaScript(timingsScript);
+        for (var entry : entries) {
+            var operation = "net." + entry.get(0) + (Boolean.TRUE.equals(entry.get(2)) ? ".cached" : "");
+            long nanos = (long) (((Number) entry.get(1)).doubleValue() * 1_000_000);
+            Metrics.record(operation, nanos);
+        }
+    }
+}
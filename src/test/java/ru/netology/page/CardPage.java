@@ -1,49 +1,57 @@
 package ru.netology.page;
 
 import com.codeborne.selenide.Condition;
-import com.codeborne.selenide.SelenideElement;
-
-import static com.codeborne.selenide.Selenide.$x;
 
 public class CardPage {
-    private static final SelenideElement dailyTripHeading = $x("//div[@id='root']/div/h2");
-    private static final SelenideElement dailyTripCard = $x("//div[@id='root']/div/div[contains(@class, 'card')]");
+    private final PageElements elements = new PageElements();
+    private final PageElements.Element dailyTripHeading = elements.css("div#root > div > h2");
+    private final PageElements.Element dailyTripCard = elements.xpath("//div[@id='root']/div/div[contains(@class, 'card')]");
 
-    private static final SelenideElement payButton = $x("//span[text()='Купить']//ancestor::button");
-    private static final SelenideElement creditButton = $x("//span[text()='Купить в кредит']//ancestor::button");
+    private final PageElements.Element payButton = elements.xpath("//span[text()='Купить']//ancestor::button");
+    private final PageElements.Element creditButton = elements.xpath("//span[text()='Купить в кредит']//ancestor::button");
 
-    private static final SelenideElement formHeading = $x("//form//preceding-sibling::h3");
-    private static final SelenideElement form = $x("//form");
-    private static final SelenideElement successNotification = $x("//div[contains(@class, 'notification_status_ok')]");
-    private static final SelenideElement errorNotification = $x("//div[contains(@class, 'notification_status_error')]");
+    // форма и уведомления появляются и исчезают, их ищем каждый раз заново
+    private final PageElements.Element formHeading = elements.dynamicXpath("//form//preceding-sibling::h3");
+    private final PageElements.Element form = elements.dynamicXpath("//form");
+    private final PageElements.Element successNotification = elements.dynamicXpath("//div[contains(@class, 'notification_status_ok')]");
+    private final PageElements.Element errorNotification = elements.dynamicXpath("//div[contains(@class, 'notification_status_error')]");
 
     public CardPage() {
-        dailyTripHeading.should(Condition.visible, Condition.text("Путешествие дня"));
-        dailyTripCard.should(Condition.visible);
-
-        payButton.should(Condition.visible);
-        creditButton.should(Condition.visible);
-
-        formHeading.should(Condition.hidden);
-        form.should(Condition.hidden);
-        successNotification.should(Condition.hidden);
-        errorNotification.should(Condition.hidden);
+        // все восемь проверок по одному снимку страницы
+        elements.run("ui.CardPage.open", () -> elements.await(state -> {
+            state.assertText(dailyTripHeading, "Путешествие дня");
+            state.assertVisible(dailyTripCard);
+
+            state.assertVisible(payButton);
+            state.assertVisible(creditButton);
+
+            state.assertHidden(formHeading);
+            state.assertHidden(form);
+            state.assertHidden(successNotification, "notification_visible");
+            state.assertHidden(errorNotification, "notification_visible");
+        }));
     }
 
     public FormPage clickPayButton() {
-        payButton.click();
-        formHeading.should(Condition.visible, Condition.text("Оплата по карте"));
-        return new FormPage();
+        return elements.call("ui.CardPage.clickPayButton", () -> {
+            payButton.click();
+            formHeading.get().should(Condition.visible, Condition.text("Оплата по карте"));
+            return new FormPage();
+        });
     }
 
     public FormPage clickCreditButton() {
-        creditButton.click();
-        formHeading.should(Condition.visible, Condition.text("Кредит по данным карты"));
-        return new FormPage();
+        return elements.call("ui.CardPage.clickCreditButton", () -> {
+            creditButton.click();
+            formHeading.get().should(Condition.visible, Condition.text("Кредит по данным карты"));
+            return new FormPage();
+        });
     }
 
     public int getAmount() {
-        var str = dailyTripCard.$x(".//ul/li[contains(text(), 'руб')]").getText().split(" ");
-        return Integer.valueOf(str[1] + str[2]);
+        return elements.call("ui.CardPage.getAmount", () -> {
+            var str = dailyTripCard.get().$x(".//ul/li[contains(text(), 'руб')]").getText().split(" ");
+            return Integer.valueOf(str[1] + str[2]);
+        });
     }
 }
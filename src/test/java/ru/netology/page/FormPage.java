@@ -1,134 +1,233 @@
 package ru.netology.page;
 
 import com.codeborne.selenide.Condition;
-import com.codeborne.selenide.SelenideElement;
+import org.openqa.selenium.WebElement;
 
 import java.time.Duration;
-
-import static com.codeborne.selenide.Selenide.$x;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.codeborne.selenide.Selenide.executeAsyncJavaScript;
+import static com.codeborne.selenide.Selenide.executeJavaScript;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FormPage {
-    private static final SelenideElement dailyTripCard = $x("//div[@id='root']/div/div[contains(@class, 'card')]");
-    private static final SelenideElement payButton = $x("//span[text()='Купить']//ancestor::button");
-    private static final SelenideElement creditButton = $x("//span[text()='Купить в кредит']//ancestor::button");
-    private static final SelenideElement form = $x("//form");
-    private static final SelenideElement numberLabel = form.$x(".//span[text()='Номер карты']//ancestor::div/span");
-    private static final SelenideElement numberInput = numberLabel.$x(".//ancestor::span//input");
-    private static final SelenideElement monthLabel = form.$x(".//span[text()='Месяц']//ancestor::div/span/span[1]/span");
-    private static final SelenideElement monthInput = monthLabel.$x(".//input");
-    private static final SelenideElement yearLabel = form.$x(".//span[text()='Год']//ancestor::div/span/span[2]/span");
-    private static final SelenideElement yearInput = yearLabel.$x(".//input");
-    private static final SelenideElement holderLabel = form.$x(".//span[text()='Владелец']//ancestor::div/span/span[1]/span");
-    private static final SelenideElement holderInput = holderLabel.$x(".//input");
-    private static final SelenideElement cvcLabel = form.$x(".//span[text()='CVC/CVV']//ancestor::div/span/span[2]/span");
-    private static final SelenideElement cvcInput = cvcLabel.$x(".//input");
-    private static final SelenideElement continuousButton = form.$x(".//span[text()='Продолжить']//ancestor::button");
-
-    private static final SelenideElement successNotification = $x("//div[contains(@class, 'notification_status_ok')]");
-    private static final SelenideElement successCloseButton = successNotification.$x("./button");
-    private static final SelenideElement errorNotification = $x("//div[contains(@class, 'notification_status_error')]");
-    private static final SelenideElement errorCloseButton = errorNotification.$x("./button");
+    public enum Field { NUMBER, MONTH, YEAR, HOLDER, CVC }
+
+    private final PageElements elements = new PageElements();
+    private final PageElements.Element dailyTripCard = elements.xpath("//div[@id='root']/div/div[contains(@class, 'card')]");
+    private final PageElements.Element payButton = elements.xpath("//span[text()='Купить']//ancestor::button");
+    private final PageElements.Element creditButton = elements.xpath("//span[text()='Купить в кредит']//ancestor::button");
+    private final PageElements.Element form = elements.css("form");
+    private final PageElements.Element numberLabel = form.xpath(".//span[text()='Номер карты']//ancestor::div/span");
+    private final PageElements.Element numberInput = numberLabel.xpath(".//ancestor::span//input");
+    private final PageElements.Element monthLabel = form.xpath(".//span[text()='Месяц']//ancestor::div/span/span[1]/span");
+    private final PageElements.Element monthInput = monthLabel.css("input");
+    private final PageElements.Element yearLabel = form.xpath(".//span[text()='Год']//ancestor::div/span/span[2]/span");
+    private final PageElements.Element yearInput = yearLabel.css("input");
+    private final PageElements.Element holderLabel = form.xpath(".//span[text()='Владелец']//ancestor::div/span/span[1]/span");
+    private final PageElements.Element holderInput = holderLabel.css("input");
+    private final PageElements.Element cvcLabel = form.xpath(".//span[text()='CVC/CVV']//ancestor::div/span/span[2]/span");
+    private final PageElements.Element cvcInput = cvcLabel.css("input");
+    private final PageElements.Element continuousButton = form.xpath(".//span[text()='Продолжить']//ancestor::button");
+
+    // уведомления появляются и исчезают, их ищем каждый раз заново
+    private final PageElements.Element successNotification = elements.dynamicXpath("//div[contains(@class, 'notification_status_ok')]");
+    private final PageElements.Element successCloseButton = successNotification.xpath("./button");
+    private final PageElements.Element errorNotification = elements.dynamicXpath("//div[contains(@class, 'notification_status_error')]");
+    private final PageElements.Element errorCloseButton = errorNotification.xpath("./button");
+
+    // -Dform.fill=fast - все поля заполняются одним скриптом, по умолчанию (keys) - вводом с клавиатуры
+    private static final boolean fastFill = "fast".equals(System.getProperty("form.fill", "keys"));
+
+    // значение ставится нативным сеттером, иначе React не заметит изменения, затем input/change как при вводе
+    // и blur, после которого форма проверяет поле
+    private static final String fillScript =
+            "var values = arguments[1];"
+            + "var setter = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set;"
+            + "arguments[0].forEach(function (input, i) {"
+            + "  input.focus();"
+            + "  setter.call(input, values[i]);"
+            + "  input.dispatchEvent(new Event('input', {bubbles: true}));"
+            + "  input.dispatchEvent(new Event('change', {bubbles: true}));"
+            + "  input.blur();"
+            + "});";
+    // ответ приходит по MutationObserver, как только уведомление показано, без опроса с интервалом;
+    // по истечении таймаута скрипт возвращает null. Таймаут меньше стандартного script timeout WebDriver (30 с)
+    private static final Duration notificationTimeout = Duration.ofSeconds(25);
+    private static final String awaitNotificationScript =
+            "var statusClass = arguments[0], timeout = arguments[1], callback = arguments[arguments.length - 1];"
+            + "var observer, timer, done = false;"
+            + "var snapshot = function () {"
+            + "  var node = document.querySelector('div.' + statusClass);"
+            + "  if (!node || !(node.offsetWidth || node.offsetHeight || node.getClientRects().length)"
+            + "      || !node.classList.contains('notification_visible')) {"
+            + "    return null;"
+            + "  }"
+            + "  var title = node.querySelector(':scope > .notification__title');"
+            + "  var content = node.querySelector(':scope > .notification__content');"
+            + "  return {classes: node.className, title: title ? title.innerText : '', content: content ? content.innerText : ''};"
+            + "};"
+            + "var finish = function (result) {"
+            + "  if (done) { return; }"
+            + "  done = true;"
+            + "  observer.disconnect();"
+            + "  clearTimeout(timer);"
+            + "  callback(result);"
+            + "};"
+            + "observer = new MutationObserver(function () { var result = snapshot(); if (result) { finish(result); } });"
+            + "observer.observe(document.body, {subtree: true, childList: true, characterData: true, attributes: true, attributeFilter: ['class', 'style']});"
+            + "timer = setTimeout(function () { finish(snapshot()); }, timeout);"
+            + "var current = snapshot();"
+            + "if (current) { finish(current); }";
+    private static final String readScript = "return arguments[0].map(function (input) { return input.value; });";
 
     public FormPage() {
-        dailyTripCard.should(Condition.visible);
-        payButton.should(Condition.visible);
-        creditButton.should(Condition.visible);
-
-        form.should(Condition.visible);
-        successNotification.should(Condition.hidden);
-        errorNotification.should(Condition.hidden);
+        elements.run("ui.FormPage.open", () -> elements.await(state -> {
+            state.assertVisible(dailyTripCard);
+            state.assertVisible(payButton);
+            state.assertVisible(creditButton);
+
+            state.assertVisible(form);
+            state.assertHidden(successNotification, "notification_visible");
+            state.assertHidden(errorNotification, "notification_visible");
+        }));
     }
 
     public void insertingValueInForm(String number, String month, String year, String holder, String cvc) {
-        numberLabel.click();
-        numberInput.val(number);
-        monthLabel.click();
-        monthInput.val(month);
-        yearLabel.click();
-        yearInput.val(year);
-        holderLabel.click();
-        holderInput.val(holder);
-        cvcLabel.click();
-        cvcInput.val(cvc);
-        continuousButton.click();
+        if (!fastFill) {
+            insertingValueInFormByKeys(number, month, year, holder, cvc);
+            return;
+        }
+        elements.run("ui.FormPage.insertingValueInFormFast", () -> {
+            executeJavaScript(fillScript, inputs(), Arrays.asList(number, month, year, holder, cvc));
+            continuousButton.click();
+        });
+    }
+
+    // посимвольный ввод, для тестов, которые проверяют работу маски поля
+    public void insertingValueInFormByKeys(String number, String month, String year, String holder, String cvc) {
+        elements.run("ui.FormPage.insertingValueInForm", () -> {
+            numberLabel.click();
+            numberInput.val(number);
+            monthLabel.click();
+            monthInput.val(month);
+            yearLabel.click();
+            yearInput.val(year);
+            holderLabel.click();
+            holderInput.val(holder);
+            cvcLabel.click();
+            cvcInput.val(cvc);
+            continuousButton.click();
+        });
     }
 
     public void matchesByInsertValue(String number, String month, String year, String holder, String cvc) {
-        assertEquals(number, numberInput.getValue());
-        assertEquals(month, monthInput.getValue());
-        assertEquals(year, yearInput.getValue());
-        assertEquals(holder, holderInput.getValue());
-        assertEquals(cvc, cvcInput.getValue());
+        elements.run("ui.FormPage.matchesByInsertValue", () -> {
+            List<String> values = executeJavaScript(readScript, inputs()); // все пять значений одним вызовом
+            assertEquals(Arrays.asList(number, month, year, holder, cvc), values);
+        });
     }
 
     public void assertBuyOperationIsSuccessful() {
-        successNotification.should(Condition.visible, Duration.ofSeconds(25));
-        successNotification.should(Condition.cssClass("notification_visible"));
-        successNotification.$x("./div[@class='notification__title']").should(Condition.text("Успешно"));
-        successNotification.$x("./div[@class='notification__content']").should(Condition.text("Операция одобрена Банком."));
-        successCloseButton.click();
-        successNotification.should(Condition.hidden);
+        elements.run("ui.FormPage.assertBuyOperationIsSuccessful", () -> {
+            assertNotification("notification_status_ok", "Успешно", "Операция одобрена Банком.");
+            successCloseButton.click();
+            successNotification.get().should(Condition.hidden);
+        });
     }
 
     public void assertBuyOperationWithErrorNotification() {
-        errorNotification.should(Condition.visible, Duration.ofSeconds(25));
-        errorNotification.should(Condition.cssClass("notification_visible"));
-        errorNotification.$x("./div[@class='notification__title']").should(Condition.text("Ошибка"));
-        errorNotification.$x("./div[@class='notification__content']").should(Condition.text("Ошибка! Банк отказал в проведении операции."));
-        errorCloseButton.click();
-        errorNotification.should(Condition.hidden);
+        elements.run("ui.FormPage.assertBuyOperationWithErrorNotification", () -> {
+            assertNotification("notification_status_error", "Ошибка", "Ошибка! Банк отказал в проведении операции.");
+            errorCloseButton.click();
+            errorNotification.get().should(Condition.hidden);
+        });
+    }
+
+    // один асинхронный скрипт ждёт уведомление и возвращает его заголовок, текст и классы
+    private static void assertNotification(String statusClass, String title, String content) {
+        Map<String, Object> notification = executeAsyncJavaScript(awaitNotificationScript, statusClass, notificationTimeout.toMillis());
+        assertNotNull(notification, "Notification " + statusClass + " did not appear within " + notificationTimeout);
+        var classes = String.valueOf(notification.get("classes"));
+        assertTrue(classes.contains("notification_visible"), "Notification classes: " + classes);
+        assertTrue(PageElements.containsText(notification.get("title"), title), "Notification title: " + notification.get("title"));
+        assertTrue(PageElements.containsText(notification.get("content"), content), "Notification content: " + notification.get("content"));
     }
 
     public void assertNumberField(String numberNotification) {
-        if (numberNotification.equals("Неверный формат")) {
-            numberLabel.should(Condition.cssClass("input_invalid"), Condition.cssClass("input_has-value"));
-        }
-        if (numberNotification.equals("Поле обязательно для заполнения")) {
-            numberLabel.should(Condition.cssClass("input_invalid")).shouldNot(Condition.cssClass("input_has-value"));
-        }
-        numberLabel.$x(".//span[@class='input__sub']").should(Condition.visible, Condition.text(numberNotification));
+        assertField("ui.FormPage.assertNumberField", numberLabel, numberNotification, true,
+                "Неверный формат");
     }
 
     public void assertMonthField(String monthNotification) {
-
-        if (monthNotification.equals("Неверный формат") || monthNotification.equals("Истёк срок действия карты")) {
-            monthLabel.should(Condition.cssClass("input_invalid"), Condition.cssClass("input_has-value"));
-        }
-        if (monthNotification.equals("Поле обязательно для заполнения")) {
-            monthLabel.should(Condition.cssClass("input_invalid")).shouldNot(Condition.cssClass("input_has-value"));
-        }
-        monthLabel.$x(".//span[@class='input__sub']").should(Condition.visible, Condition.text(monthNotification));
+        assertField("ui.FormPage.assertMonthField", monthLabel, monthNotification, true,
+                "Неверный формат", "Истёк срок действия карты");
     }
 
     public void assertYearField(String yearNotification) {
-        if (yearNotification.equals("Неверный формат") || yearNotification.equals("Истёк срок действия карты")
-                || yearNotification.equals("Неверно указан срок действия карты")) {
-            yearLabel.should(Condition.cssClass("input_invalid"), Condition.cssClass("input_has-value"));
-        }
-        if (yearNotification.equals("Поле обязательно для заполнения")) {
-            yearLabel.should(Condition.cssClass("input_invalid"));
-        }
-        yearLabel.$x(".//span[@class='input__sub']").should(Condition.visible, Condition.text(yearNotification));
+        assertField("ui.FormPage.assertYearField", yearLabel, yearNotification, false,
+                "Неверный формат", "Истёк срок действия карты", "Неверно указан срок действия карты");
     }
 
     public void assertHolderField(String holderNotification) {
-        if (holderNotification.equals("Неверный формат") || holderNotification.equals("Наименования владельца должно быть указано латиницей верхнего регистра")) {
-            holderLabel.should(Condition.cssClass("input_invalid"), Condition.cssClass("input_has-value"));
-        }
-        if (holderNotification.equals("Поле обязательно для заполнения")) {
-            holderLabel.should(Condition.cssClass("input_invalid")).shouldNot(Condition.cssClass("input_has-value"));
-        }
-        holderLabel.$x(".//span[@class='input__sub']").should(Condition.visible, Condition.text(holderNotification));
+        assertField("ui.FormPage.assertHolderField", holderLabel, holderNotification, true,
+                "Неверный формат", "Наименования владельца должно быть указано латиницей верхнего регистра");
     }
 
     public void assertCvcField(String cvcNotification) {
-        if (cvcNotification.equals("Неверный формат")) {
-            cvcLabel.should(Condition.cssClass("input_invalid"), Condition.cssClass("input_has-value"));
-        }
-        if (cvcNotification.equals("Поле обязательно для заполнения")) {
-            cvcLabel.should(Condition.cssClass("input_invalid")).shouldNot(Condition.cssClass("input_has-value"));
+        assertField("ui.FormPage.assertCvcField", cvcLabel, cvcNotification, true,
+                "Неверный формат");
+    }
+
+    // подсказка поля пропала - форма перепроверена после последнего ввода, а не показывает прошлый результат
+    public void assertNoFieldHint(Field field) {
+        var label = label(field);
+        elements.run("ui.FormPage.assertNoFieldHint", () -> elements.await(state -> state.assertNoSub(label)));
+    }
+
+    private PageElements.Element label(Field field) {
+        switch (field) {
+            case NUMBER:
+                return numberLabel;
+            case MONTH:
+                return monthLabel;
+            case YEAR:
+                return yearLabel;
+            case HOLDER:
+                return holderLabel;
+            default:
+                return cvcLabel;
         }
-        cvcLabel.$x(".//span[@class='input__sub']").should(Condition.visible, Condition.text(cvcNotification));
+    }
+
+    // filledNotifications - подсказки, при которых поле заполнено (input_has-value);
+    // emptyHasNoValue - для "Поле обязательно для заполнения" проверить ещё и отсутствие input_has-value
+    private void assertField(String operation, PageElements.Element label, String notification, boolean emptyHasNoValue,
+                             String... filledNotifications) {
+        elements.run(operation, () -> elements.await(state -> {
+            if (Arrays.asList(filledNotifications).contains(notification)) {
+                state.assertCssClass(label, "input_invalid", true);
+                state.assertCssClass(label, "input_has-value", true);
+            }
+            if (notification.equals("Поле обязательно для заполнения")) {
+                state.assertCssClass(label, "input_invalid", true);
+                if (emptyHasNoValue) {
+                    state.assertCssClass(label, "input_has-value", false);
+                }
+            }
+            state.assertSub(label, notification);
+        }));
+    }
+
+    private List<WebElement> inputs() {
+        return Stream.of(numberInput, monthInput, yearInput, holderInput, cvcInput)
+                .map(PageElements.Element::toWebElement)
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,299 @@
+package ru.netology.page;
+
+import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.SelenideElement;
+import lombok.SneakyThrows;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import ru.netology.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static com.codeborne.selenide.Selenide.$;
+import static com.codeborne.selenide.Selenide.$x;
+import static com.codeborne.selenide.Selenide.executeJavaScript;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Элементы экземпляра страницы: при первом обращении все ищутся одним скриптом, дальше click и val идут по найденным
+// ссылкам напрямую через WebDriver, без повторного прохода цепочки xpath и без ожиданий Selenide. Устаревшая ссылка
+// (React пересоздал узел) сразу даёт StaleElementReferenceException, ссылки ищутся заново и шаг повторяется один раз.
+// Пока элемента нет в DOM или он ещё не принимает ввод, вместо ссылки работает обычный ленивый локатор Selenide.
+// Элементы, которые появляются и исчезают (уведомления), не кэшируются вовсе (dynamicXpath).
+class PageElements {
+    private static final String findScript =
+            "var locators = arguments[0], found = [];"
+            + "for (var i = 0; i < locators.length; i++) {"
+            + "  var context = locators[i][2] < 0 ? document : found[locators[i][2]], node = null;"
+            + "  if (context) {"
+            + "    node = locators[i][0] === 'css' ? context.querySelector(locators[i][1])"
+            + "        : document.evaluate(locators[i][1], context, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "  }"
+            + "  found.push(node);"
+            + "}";
+    private static final String resolveScript = findScript + "return found;";
+    // видимость, текст, классы и подсказка поля (input__sub) всех элементов страницы за один вызов
+    private static final String stateScript = findScript
+            // как isDisplayed в WebDriver: есть размеры, не visibility:hidden, ни один предок не прозрачен (opacity 0)
+            // и не обрезает элемент целиком своим overflow
+            + "var visible = function (node) {"
+            + "  if (!(node.offsetWidth || node.offsetHeight || node.getClientRects().length)"
+            + "      || getComputedStyle(node).visibility === 'hidden') {"
+            + "    return false;"
+            + "  }"
+            + "  var rect = node.getBoundingClientRect();"
+            + "  for (var el = node; el && el.nodeType === 1; el = el.parentElement) {"
+            + "    var style = getComputedStyle(el);"
+            + "    if (style.opacity === '0') { return false; }"
+            + "    if (el !== node && /hidden|clip/.test(style.overflowX + ' ' + style.overflowY)) {"
+            + "      var box = el.getBoundingClientRect();"
+            + "      if (rect.right <= box.left || rect.left >= box.right || rect.bottom <= box.top || rect.top >= box.bottom) {"
+            + "        return false;"
+            + "      }"
+            + "    }"
+            + "  }"
+            + "  return true;"
+            + "};"
+            + "return found.map(function (node) {"
+            + "  if (!node) { return null; }"
+            + "  var sub = document.evaluate(\".//span[@class='input__sub']\", node, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "  return {visible: visible(node), text: node.innerText || '', classes: node.getAttribute('class') || '',"
+            + "      sub: sub && visible(sub) ? sub.innerText : null};"
+            + "});";
+
+    private final List<List<Object>> locators = new ArrayList<>();
+    private final List<SelenideElement> fallbacks = new ArrayList<>();
+    private final List<Boolean> dynamic = new ArrayList<>();
+    private List<WebElement> handles;
+
+    class Element {
+        private final int index;
+
+        private Element(int index) {
+            this.index = index;
+        }
+
+        // ленивый локатор Selenide - для ожиданий (should) и вложенных поисков
+        SelenideElement get() {
+            return fallbacks.get(index);
+        }
+
+        void click() {
+            perform(WebElement::click, SelenideElement::click);
+        }
+
+        // поле очищается с клавиатуры, как при вводе пользователем, иначе React и маска не заметят очистки
+        void val(String value) {
+            perform(handle -> {
+                handle.sendKeys(Keys.HOME, Keys.chord(Keys.SHIFT, Keys.END), Keys.BACK_SPACE);
+                if (value != null && !value.isEmpty()) {
+                    handle.sendKeys(value);
+                }
+            }, element -> element.val(value));
+        }
+
+        WebElement toWebElement() {
+            var handle = handle();
+            return handle != null ? handle : fallbacks.get(index).toWebElement();
+        }
+
+        private WebElement handle() {
+            if (dynamic.get(index)) {
+                return null;
+            }
+            var handle = handles().get(index);
+            if (handle == null) {
+                handles = null; // элемент ещё не отрисован - в следующий раз поищем снова
+            }
+            return handle;
+        }
+
+        private void perform(Consumer<WebElement> action, Consumer<SelenideElement> fallback) {
+            var handle = handle();
+            if (handle == null) {
+                fallback.accept(fallbacks.get(index));
+                return;
+            }
+            try {
+                action.accept(handle);
+            } catch (ElementNotInteractableException e) { // перекрыт или ещё недоступен - ждём, как Selenide
+                fallback.accept(fallbacks.get(index));
+            }
+        }
+
+        // css там, где селектор точно равен xpath - querySelector быстрее document.evaluate
+        Element css(String selector) {
+            return add("css", selector, this, fallbacks.get(index).$(selector), dynamic.get(index));
+        }
+
+        Element xpath(String path) {
+            return add("xpath", path, this, fallbacks.get(index).$x(path), dynamic.get(index));
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(locators.get(index).get(1));
+        }
+    }
+
+    Element css(String selector) {
+        return add("css", selector, null, $(selector), false);
+    }
+
+    Element xpath(String path) {
+        return add("xpath", path, null, $x(path), false);
+    }
+
+    Element dynamicXpath(String path) {
+        return add("xpath", path, null, $x(path), true);
+    }
+
+    private Element add(String type, String selector, Element parent, SelenideElement fallback, boolean isDynamic) {
+        locators.add(Arrays.asList(type, selector, parent == null ? -1 : parent.index));
+        fallbacks.add(fallback);
+        dynamic.add(isDynamic);
+        handles = null;
+        return new Element(locators.size() - 1);
+    }
+
+    private List<WebElement> handles() {
+        if (handles == null) {
+            handles = executeJavaScript(resolveScript, locators);
+        }
+        return handles;
+    }
+
+    // Снимок состояния всех элементов страницы; проверки выполняются в JVM
+    class State {
+        private final List<Map<String, Object>> states;
+
+        private State(List<Map<String, Object>> states) {
+            this.states = states;
+        }
+
+        private Map<String, Object> of(Element element) {
+            return states.get(element.index);
+        }
+
+        private boolean isVisible(Element element) {
+            var state = of(element);
+            return state != null && Boolean.TRUE.equals(state.get("visible"));
+        }
+
+        void assertVisible(Element element) {
+            assertTrue(isVisible(element), element + " should be visible");
+        }
+
+        void assertHidden(Element element) {
+            assertFalse(isVisible(element), element + " should be hidden");
+        }
+
+        // закрытое уведомление может остаться в разметке: оно скрыто и без класса видимости
+        void assertHidden(Element element, String visibleClass) {
+            assertHidden(element);
+            if (of(element) != null) {
+                assertCssClass(element, visibleClass, false);
+            }
+        }
+
+        void assertText(Element element, String text) {
+            assertVisible(element);
+            var actual = of(element).get("text");
+            assertTrue(containsText(actual, text), element + " should have text '" + text + "' but was '" + actual + "'");
+        }
+
+        void assertCssClass(Element element, String cssClass, boolean expected) {
+            var state = of(element);
+            assertNotNull(state, element + " should exist");
+            var classes = Arrays.asList(String.valueOf(state.get("classes")).split("\\s+"));
+            assertTrue(classes.contains(cssClass) == expected,
+                    element + (expected ? " should" : " should not") + " have class " + cssClass + ", classes: " + classes);
+        }
+
+        void assertNoSub(Element element) {
+            var state = of(element);
+            var sub = state == null ? null : state.get("sub");
+            assertTrue(sub == null, element + " should have no hint but was '" + sub + "'");
+        }
+
+        // подсказка под полем (span.input__sub) видна и содержит текст
+        void assertSub(Element element, String text) {
+            var state = of(element);
+            assertNotNull(state, element + " should exist");
+            var sub = state.get("sub");
+            assertTrue(sub != null && containsText(sub, text), element + " should have hint '" + text + "' but was '" + sub + "'");
+        }
+    }
+
+    State snapshot() {
+        return new State(executeJavaScript(stateScript, locators));
+    }
+
+    // аналог should: снимок перечитывается, пока проверки не пройдут или не истечёт Configuration.timeout
+    @SneakyThrows
+    void await(Consumer<State> checks) {
+        long deadline = System.currentTimeMillis() + Configuration.timeout;
+        while (true) {
+            try {
+                checks.accept(snapshot());
+                return;
+            } catch (AssertionError e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+            }
+            Thread.sleep(Configuration.pollingInterval);
+        }
+    }
+
+    // как Condition.text: вхождение без учёта регистра и лишних пробелов
+    static boolean containsText(Object actual, String expected) {
+        var normalized = String.valueOf(actual).replaceAll("\\s+", " ").toLowerCase();
+        return normalized.contains(expected.replaceAll("\\s+", " ").toLowerCase());
+    }
+
+    // шаг страницы с замером времени и повтором при устаревших ссылках
+    void run(String operation, Metrics.Step step) {
+        Metrics.run(operation, () -> {
+            try {
+                step.run();
+            } catch (RuntimeException | Error e) {
+                if (!isStale(e)) {
+                    throw e;
+                }
+                handles = null;
+                step.run();
+            }
+        });
+    }
+
+    <T> T call(String operation, Metrics.Action<T> action) {
+        return Metrics.call(operation, () -> {
+            try {
+                return action.call();
+            } catch (RuntimeException | Error e) {
+                if (!isStale(e)) {
+                    throw e;
+                }
+                handles = null;
+                return action.call();
+            }
+        });
+    }
+
+    private static boolean isStale(Throwable e) {
+        for (var cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StaleElementReferenceException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
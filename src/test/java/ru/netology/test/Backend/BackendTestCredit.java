@@ -5,41 +5,48 @@ import io.qameta.allure.*;
 import io.qameta.allure.selenide.AllureSelenide;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import ru.netology.data.DataHelper;
 import ru.netology.data.DBHelper;
+import ru.netology.extension.ApiCaptureExtension;
+import ru.netology.extension.DataSeedExtension;
+import ru.netology.extension.DatabaseIsolationExtension;
+import ru.netology.extension.ExclusiveDatabase;
+import ru.netology.extension.GateSimulatorExtension;
+import ru.netology.extension.MetricsExtension;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static ru.netology.data.APIHelper.postRequest;
-import static ru.netology.data.DBHelper.cleanDatabase;
 import static ru.netology.data.DataHelper.*;
 
+@ExtendWith(GateSimulatorExtension.class)
+@ExtendWith(DatabaseIsolationExtension.class)
+@ExtendWith(DataSeedExtension.class)
+@ExtendWith(MetricsExtension.class)
+@ExtendWith(ApiCaptureExtension.class)
+@ExclusiveDatabase
 public class BackendTestCredit {
 
-    private static DataHelper.CardInfo cardInfo;
+    private DataHelper.CardInfo cardInfo;
     private static final String creditUrl = "api/v1/credit";
     private static final String status200 = "200";
     private static final String status400 = "400";
-    private static List<DBHelper.PaymentEntity> payments;
-    private static List<DBHelper.CreditRequestEntity> credits;
-    private static List<DBHelper.OrderEntity> orders;
+    // строки читаются через getLatest*(2): двух строк хватает, чтобы отличить одну запись от нескольких
+    private List<DBHelper.PaymentEntity> payments;
+    private List<DBHelper.CreditRequestEntity> credits;
+    private List<DBHelper.OrderEntity> orders;
 
-    @BeforeAll
-    static void setUpAll() {
+    @BeforeEach
+    public void setUp() {
         SelenideLogger.addListener("allure", new AllureSelenide());
     }
 
     @AfterEach
     public void teardown() {
-        cleanDatabase();
         cleanListNow();
-    }
-
-    @AfterAll
-    static void tearDownAll() {
         SelenideLogger.removeListener("allure");
-        cleanDatabase();
     }
 
     @Severity(SeverityLevel.BLOCKER)
@@ -51,17 +58,19 @@ public class BackendTestCredit {
         String status = status200;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        DBHelper.awaitOrderForCredit();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(1, credits.size());
         assertEquals(1, orders.size());
 
         assertTrue(credits.get(0).getStatus().equalsIgnoreCase("approved"));
-        assertEquals(credits.get(0).getBank_id(), orders.get(0).getPayment_id());
-        assertNull(orders.get(0).getCredit_id());
+        var order = DBHelper.getOrderByPaymentId(credits.get(0).getBank_id());
+        assertNotNull(order, "No order with payment_id = bank_id of the credit request");
+        assertNull(order.getCredit_id());
     }
 
 
@@ -74,17 +83,19 @@ public class BackendTestCredit {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        DBHelper.awaitOrderForCredit();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(1, credits.size());
         assertEquals(1, orders.size());
 
         assertTrue(credits.get(0).getStatus().equalsIgnoreCase("declined"));
-        assertEquals(credits.get(0).getBank_id(), orders.get(0).getPayment_id());
-        assertNull(orders.get(0).getCredit_id());
+        var order = DBHelper.getOrderByPaymentId(credits.get(0).getBank_id());
+        assertNotNull(order, "No order with payment_id = bank_id of the credit request");
+        assertNull(order.getCredit_id());
     }
 
     @Severity(SeverityLevel.BLOCKER)
@@ -96,9 +107,9 @@ public class BackendTestCredit {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
@@ -114,9 +125,9 @@ public class BackendTestCredit {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
@@ -133,9 +144,9 @@ public class BackendTestCredit {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
@@ -152,9 +163,9 @@ public class BackendTestCredit {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
@@ -171,9 +182,9 @@ public class BackendTestCredit {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
@@ -190,9 +201,9 @@ public class BackendTestCredit {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
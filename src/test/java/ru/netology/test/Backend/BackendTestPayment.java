@@ -6,41 +6,50 @@ import io.qameta.allure.selenide.AllureSelenide;
 import io.qameta.allure.*;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import ru.netology.data.DataHelper;
 import ru.netology.data.DBHelper;
+import ru.netology.extension.ApiCaptureExtension;
+import ru.netology.extension.DataSeedExtension;
+import ru.netology.extension.DatabaseIsolationExtension;
+import ru.netology.extension.ExclusiveDatabase;
+import ru.netology.extension.GateSimulatorExtension;
+import ru.netology.extension.MetricsExtension;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static ru.netology.data.APIHelper.postRequest;
-import static ru.netology.data.DBHelper.cleanDatabase;
+import static ru.netology.data.APIHelper.postRequestAsync;
 import static ru.netology.data.DataHelper.*;
 
 
 
+@ExtendWith(GateSimulatorExtension.class)
+@ExtendWith(DatabaseIsolationExtension.class)
+@ExtendWith(DataSeedExtension.class)
+@ExtendWith(MetricsExtension.class)
+@ExtendWith(ApiCaptureExtension.class)
+@ExclusiveDatabase
 public class BackendTestPayment {
-    private static DataHelper.CardInfo cardInfo;
+    private DataHelper.CardInfo cardInfo;
     private static final String paymentUrl = "api/v1/pay";
     private static final String status200 = "200";
     private static final String status400 = "400";
-    private static List<DBHelper.PaymentEntity> payments;
-    private static List<DBHelper.CreditRequestEntity> credits;
-    private static List<DBHelper.OrderEntity> orders;
+    // строки читаются через getLatest*(2): двух строк хватает, чтобы отличить одну запись от нескольких
+    private List<DBHelper.PaymentEntity> payments;
+    private List<DBHelper.CreditRequestEntity> credits;
+    private List<DBHelper.OrderEntity> orders;
 
-    @BeforeAll
-    static void setUpAll() {
+    @BeforeEach
+    public void setUp() {
         SelenideLogger.addListener("allure", new AllureSelenide());
     }
 
     @AfterEach
     public void teardown() {
-        cleanDatabase();
         cleanListNow();
-    }
-
-    @AfterAll
-    static void tearDownAll() {
         SelenideLogger.removeListener("allure");
-        cleanDatabase();
     }
 
     @Severity(SeverityLevel.BLOCKER)
@@ -52,16 +61,18 @@ public class BackendTestPayment {
         String status = status200;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        DBHelper.awaitOrderForPayment();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
         assertEquals(1, payments.size());
         assertEquals(0, credits.size());
         assertEquals(1, orders.size());
 
         assertTrue(payments.get(0).getStatus().equalsIgnoreCase("approved"));
-        assertEquals(payments.get(0).getTransaction_id(), orders.get(0).getPayment_id());
-        assertNull(orders.get(0).getCredit_id());
+        var order = DBHelper.getOrderByPaymentId(payments.get(0).getTransaction_id());
+        assertNotNull(order, "No order with payment_id = transaction_id of the payment");
+        assertNull(order.getCredit_id());
     }
 
     @Severity(SeverityLevel.BLOCKER)
@@ -73,17 +84,47 @@ public class BackendTestPayment {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        DBHelper.awaitOrderForPayment();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(1, payments.size());
         assertEquals(0, credits.size());
         assertEquals(1, orders.size());
 
         assertTrue(payments.get(0).getStatus().equalsIgnoreCase("declined"));
-        assertEquals(payments.get(0).getTransaction_id(), orders.get(0).getPayment_id());
-        assertNull(orders.get(0).getCredit_id());
+        var order = DBHelper.getOrderByPaymentId(payments.get(0).getTransaction_id());
+        assertNotNull(order, "No order with payment_id = transaction_id of the payment");
+        assertNull(order.getCredit_id());
+    }
+
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("Sending several asynchronous POST requests from one thread when paying for a tour")
+    public void shouldPaySeveralCardsAsync() {
+        var requests = List.of(
+                postRequestAsync(DataHelper.getValidApprovedCard(), paymentUrl, status200),
+                postRequestAsync(DataHelper.getValidDeclinedCard(), paymentUrl, status400),
+                postRequestAsync(DataHelper.getValidApprovedCard(), paymentUrl, status200),
+                postRequestAsync(DataHelper.getValidDeclinedCard(), paymentUrl, status400));
+        // статус каждого ответа проверяет сам postRequestAsync, join пробрасывает несовпадение
+        CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+
+        payments = DBHelper.awaitRows(() -> DBHelper.getLatestPayments(5), rows -> rows.size() >= 4);
+        orders = DBHelper.awaitRows(() -> DBHelper.getLatestOrders(5), rows -> rows.size() >= 4);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        assertEquals(4, payments.size());
+        assertEquals(0, credits.size());
+        assertEquals(4, orders.size());
+
+        assertEquals(2, payments.stream().filter(payment -> payment.getStatus().equalsIgnoreCase("approved")).count());
+        assertEquals(2, payments.stream().filter(payment -> payment.getStatus().equalsIgnoreCase("declined")).count());
+        for (var payment : payments) {
+            var order = DBHelper.getOrderByPaymentId(payment.getTransaction_id());
+            assertNotNull(order, "No order with payment_id = transaction_id of the payment");
+            assertNull(order.getCredit_id());
+        }
     }
 
     @Severity(SeverityLevel.BLOCKER)
@@ -95,9 +136,9 @@ public class BackendTestPayment {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
@@ -113,9 +154,9 @@ public class BackendTestPayment {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
@@ -132,9 +173,9 @@ public class BackendTestPayment {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
@@ -151,9 +192,9 @@ public class BackendTestPayment {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
@@ -170,9 +211,9 @@ public class BackendTestPayment {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
@@ -189,9 +230,9 @@ public class BackendTestPayment {
         String status = status400;
         postRequest(cardInfo, path, status);
 
-        payments = DBHelper.getPayments();
-        credits = DBHelper.getCreditsRequest();
-        orders = DBHelper.getOrders();
+        payments = DBHelper.getLatestPayments(2);
+        credits = DBHelper.getLatestCreditsRequest(2);
+        orders = DBHelper.getLatestOrders(2);
 
         assertEquals(0, payments.size());
         assertEquals(0, credits.size());
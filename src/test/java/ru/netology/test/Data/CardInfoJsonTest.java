@@ -0,0 +1,82 @@
+package ru.netology.test.Data;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.netology.data.CardInfoJson;
+import ru.netology.data.DataHelper;
+
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+// CardInfoJson должен давать ровно те же байты, что и Gson, которым тела запросов писались раньше
+public class CardInfoJsonTest {
+    private static final Gson gson = new Gson();
+
+    private static void assertSameAsGson(DataHelper.CardInfo cardInfo) {
+        var expected = gson.toJson(cardInfo).getBytes(UTF_8);
+        var actual = CardInfoJson.toBytes(cardInfo);
+        assertArrayEquals(expected, actual, () -> gson.toJson(cardInfo) + " vs " + new String(actual, UTF_8));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "4444 4444 4444 4441",
+            "quote \" backslash \\ slash /",
+            "<script>&amp;='x'</script>",
+            "\t\b\n\r\f \u0000 \u0001 \u001f \u007f",
+            "line \u2028 separator \u2029 paragraph",
+            "ИВАН ПЕТРОВ ёЁ",
+            "\u0080 é ñ ß \u07ff \u0800 € \ufffd \uffff",
+            "emoji 😀 and 𝄞",
+            "lone \ud83d high and \ude00 low"
+    })
+    @DisplayName("Every field is escaped exactly like Gson")
+    void shouldEscapeLikeGson(String value) {
+        assertSameAsGson(new DataHelper.CardInfo(value, value, value, value, value));
+        assertSameAsGson(new DataHelper.CardInfo("4444 4444 4444 4441", "12", "30", value, "123"));
+    }
+
+    @Test
+    @DisplayName("Null fields are omitted like in Gson")
+    void shouldOmitNullFields() {
+        assertSameAsGson(new DataHelper.CardInfo(null, null, null, null, null));
+        assertSameAsGson(new DataHelper.CardInfo(null, "12", "30", "IVAN", "123"));
+        assertSameAsGson(new DataHelper.CardInfo("4444 4444 4444 4441", null, "30", null, "123"));
+        assertSameAsGson(new DataHelper.CardInfo("4444 4444 4444 4441", "12", "30", "IVAN", null));
+        assertSameAsGson(new DataHelper.CardInfo(null, null, null, null, "123"));
+    }
+
+    @Test
+    @DisplayName("Random strings from the whole BMP and supplementary planes match Gson")
+    void shouldMatchGsonOnRandomStrings() {
+        var random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            var chars = new char[random.nextInt(24)];
+            for (int j = 0; j < chars.length; j++) {
+                // чаще ASCII и управляющие символы, реже остальной диапазон char, включая суррогаты
+                chars[j] = (char) (random.nextBoolean() ? random.nextInt(0x80) : random.nextInt(0x10000));
+            }
+            var value = new String(chars);
+            assertSameAsGson(new DataHelper.CardInfo(value, null, value, value, random.nextBoolean() ? null : value));
+        }
+    }
+
+    @Test
+    @DisplayName("Generated cards match Gson")
+    void shouldMatchGsonOnGeneratedCards() {
+        for (int i = 0; i < 1000; i++) {
+            assertSameAsGson(DataHelper.getValidApprovedCard());
+            assertSameAsGson(new DataHelper.CardInfo(DataHelper.generateLuhnValidCardNumber(), DataHelper.getMonthEmpty(),
+                    DataHelper.previousYear(), DataHelper.generateRandomCardsHolderNameLUCyrillic(), DataHelper.generateRandomCVVOneDigit()));
+            assertSameAsGson(new DataHelper.CardInfo(DataHelper.getNumberByStatus("declined"), DataHelper.getInvalidRandomMonth(),
+                    DataHelper.getInvalidYear(), DataHelper.generateHolderWithSpecialSymbols(), DataHelper.generateCVV00()));
+            DataHelper.cleanListNow();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.netology.test.Data;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.netology.data.CardNumberGenerator;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardNumberGeneratorTest {
+    private static final int rounds = 1000;
+
+    static Stream<Arguments> binRanges() {
+        return Stream.of(
+                Arguments.of("4", 16, true),
+                Arguments.of("4", 16, false),
+                Arguments.of("51-55", 16, true),
+                Arguments.of("51-55", 16, false),
+                Arguments.of("2200-2204", 16, true),
+                Arguments.of("2200-2204", 16, false),
+                Arguments.of("2200-2204", 19, true),
+                Arguments.of("2200-2204", 19, false)
+        );
+    }
+
+    @ParameterizedTest(name = "BIN {0}, length {1}, grouped {2}")
+    @MethodSource("binRanges")
+    @DisplayName("Generated numbers keep the BIN range, the layout and the check digit")
+    void shouldGenerateNumbersWithinBinRange(String bin, int length, boolean grouped) {
+        var range = bin.split("-");
+        long from = Long.parseLong(range[0]);
+        long to = Long.parseLong(range[range.length - 1]);
+        var generator = new CardNumberGenerator(length, grouped, new Random(1), bin);
+        int expectedLength = grouped ? length + (length - 1) / 4 : length;
+        assertEquals(expectedLength, generator.length());
+
+        for (int i = 0; i < rounds; i++) {
+            for (boolean luhnValid : new boolean[]{true, false}) {
+                var number = generator.nextString(luhnValid);
+                assertEquals(expectedLength, number.length(), number);
+                for (int position = 0; position < number.length(); position++) {
+                    boolean separator = grouped && position % 5 == 4;
+                    char c = number.charAt(position);
+                    assertTrue(separator ? c == ' ' : c >= '0' && c <= '9', number);
+                }
+                long prefix = Long.parseLong(number.replace(" ", "").substring(0, range[0].length()));
+                assertTrue(prefix >= from && prefix <= to, number);
+                assertEquals(luhnValid, CardNumberGenerator.isLuhnValid(number), number);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"4111 1111 1111 1111", "4111111111111111", "5500 0000 0000 0004", "0"})
+    @DisplayName("Known valid numbers pass the Luhn check")
+    void shouldAcceptLuhnValidNumbers(String number) {
+        assertTrue(CardNumberGenerator.isLuhnValid(number));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"4111 1111 1111 1112", "4111-1111-1111-1111", "4111111111111a11", "41111111111111١1", "", " "})
+    @DisplayName("Wrong check digits, non-digit characters and empty input fail the Luhn check")
+    void shouldRejectInvalidNumbers(String number) {
+        assertFalse(CardNumberGenerator.isLuhnValid(number));
+    }
+}
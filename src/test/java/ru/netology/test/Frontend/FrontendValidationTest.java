@@ -0,0 +1,213 @@
+package ru.netology.test.Frontend;
+
+import com.codeborne.selenide.logevents.SelenideLogger;
+import io.qameta.allure.Allure;
+import io.qameta.allure.selenide.AllureSelenide;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import ru.netology.data.DataHelper;
+import ru.netology.extension.DataSeedExtension;
+import ru.netology.extension.DatabaseIsolationExtension;
+import ru.netology.extension.GateSimulatorExtension;
+import ru.netology.extension.MetricsExtension;
+import ru.netology.page.BrowserSession;
+import ru.netology.page.CardPage;
+import ru.netology.page.FormPage;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.netology.data.DataHelper.cleanListNow;
+
+// Все проверки подсказок полей формы в одной открытой форме: между случаями поля очищаются и заполняются заново.
+// Каждый случай - отдельный результат в Allure.
+// Если приложение приняло неверное значение, форма уходит в банк с одобренной картой и пишет строки в БД -
+// поэтому класс держит блокировку БД на чтение, а после упавшего случая страница открывается заново.
+// Случаи идут в одном потоке: форма и ссылки на её элементы принадлежат браузеру потока фабрики.
+@Execution(ExecutionMode.SAME_THREAD)
+@ExtendWith(GateSimulatorExtension.class)
+@ExtendWith(DatabaseIsolationExtension.class)
+@ExtendWith(DataSeedExtension.class)
+@ExtendWith(MetricsExtension.class)
+public class FrontendValidationTest {
+
+    private static final String fieldEmpty = "Поле обязательно для заполнения";
+    private static final String fieldInvalid = "Неверный формат";
+    private static final String сardExpired = "Истёк срок действия карты";
+    private static final String invalidPeriod = "Неверно указан срок действия карты";
+    private static final String invalidHolderName = "Наименования владельца должно быть указано латиницей верхнего регистра";
+
+    private static class Case {
+        private final String name;
+        private final FormPage.Field field; // поле с неверным значением, остальные заполнены верно
+        private final UnaryOperator<DataHelper.CardInfo> card; // из валидной одобренной карты
+        private final Consumer<FormPage> check;
+
+        private Case(String name, FormPage.Field field, UnaryOperator<DataHelper.CardInfo> card, Consumer<FormPage> check) {
+            this.name = name;
+            this.field = field;
+            this.card = card;
+            this.check = check;
+        }
+    }
+
+    private static DataHelper.CardInfo withNumber(DataHelper.CardInfo card, String number) {
+        return new DataHelper.CardInfo(number, card.getMonth(), card.getYear(), card.getHolder(), card.getCvc());
+    }
+
+    private static DataHelper.CardInfo withMonth(DataHelper.CardInfo card, String month) {
+        return new DataHelper.CardInfo(card.getNumber(), month, card.getYear(), card.getHolder(), card.getCvc());
+    }
+
+    private static DataHelper.CardInfo withYear(DataHelper.CardInfo card, String year) {
+        return new DataHelper.CardInfo(card.getNumber(), card.getMonth(), year, card.getHolder(), card.getCvc());
+    }
+
+    private static DataHelper.CardInfo withHolder(DataHelper.CardInfo card, String holder) {
+        return new DataHelper.CardInfo(card.getNumber(), card.getMonth(), card.getYear(), holder, card.getCvc());
+    }
+
+    private static DataHelper.CardInfo withCvc(DataHelper.CardInfo card, String cvc) {
+        return new DataHelper.CardInfo(card.getNumber(), card.getMonth(), card.getYear(), card.getHolder(), cvc);
+    }
+
+    private static final List<Case> casesByField = List.of(
+            new Case("Card number with 20 digits", FormPage.Field.NUMBER, card -> withNumber(card, DataHelper.generateRandomCardNumberTwentyDigits()),
+                    form -> form.assertNumberField(fieldInvalid)),
+            new Case("Card number with 11 digits", FormPage.Field.NUMBER, card -> withNumber(card, DataHelper.generateRandomCardNumberElevenDigits()),
+                    form -> form.assertNumberField(fieldInvalid)),
+            new Case("Empty card number", FormPage.Field.NUMBER, card -> withNumber(card, ""),
+                    form -> form.assertNumberField(fieldEmpty)),
+
+            new Case("Month greater than 12", FormPage.Field.MONTH, card -> withMonth(card, DataHelper.getInvalidRandomMonth()),
+                    form -> form.assertMonthField(invalidPeriod)),
+            new Case("Month 0", FormPage.Field.MONTH, card -> withMonth(card, DataHelper.getMonthZero()),
+                    form -> form.assertMonthField(fieldInvalid)),
+            new Case("Month 00", FormPage.Field.MONTH, card -> withMonth(card, DataHelper.getMonthDoubleZero()),
+                    form -> form.assertMonthField(fieldInvalid)),
+            new Case("Empty month", FormPage.Field.MONTH, card -> withMonth(card, DataHelper.getMonthEmpty()),
+                    form -> form.assertMonthField(fieldEmpty)),
+
+            new Case("Year more than 20 years ahead", FormPage.Field.YEAR, card -> withYear(card, DataHelper.getInvalidYear()),
+                    form -> form.assertYearField(invalidPeriod)),
+            new Case("Previous year", FormPage.Field.YEAR, card -> withYear(card, DataHelper.previousYear()),
+                    form -> form.assertYearField(сardExpired)),
+            new Case("Year 0", FormPage.Field.YEAR, card -> withYear(card, DataHelper.getYearZero()),
+                    form -> form.assertYearField(fieldInvalid)),
+            new Case("Year 00 with the current month", FormPage.Field.YEAR,
+                    card -> withYear(withMonth(card, DataHelper.getCurrentMonth()), DataHelper.getYearDoubleZero()),
+                    form -> form.assertYearField(сardExpired)),
+            new Case("Empty year", FormPage.Field.YEAR, card -> withYear(card, DataHelper.getYearEmpty()),
+                    form -> form.assertYearField(fieldEmpty)),
+
+            new Case("Holder with a double space", FormPage.Field.HOLDER, card -> withHolder(card, DataHelper.generateHolderWithDoubleSpace()),
+                    form -> form.assertHolderField(fieldInvalid)),
+            new Case("Holder with special symbols", FormPage.Field.HOLDER, card -> withHolder(card, DataHelper.generateHolderWithSpecialSymbols()),
+                    form -> form.assertHolderField(invalidHolderName)),
+            new Case("Holder in upper and lower case latin", FormPage.Field.HOLDER, card -> withHolder(card, DataHelper.generateHolderWithUpperAndLowerCaseLatin()),
+                    form -> form.assertHolderField(invalidHolderName)),
+            new Case("Holder in cyrillic", FormPage.Field.HOLDER, card -> withHolder(card, DataHelper.generateRandomCardsHolderNameLUCyrillic()),
+                    form -> form.assertHolderField(invalidHolderName)),
+            new Case("Holder with digits", FormPage.Field.HOLDER, card -> withHolder(card, DataHelper.generateRandomCardsHolderWithDigits()),
+                    form -> form.assertHolderField(invalidHolderName)),
+            new Case("Empty holder", FormPage.Field.HOLDER, card -> withHolder(card, DataHelper.generateEmptyHolder()),
+                    form -> form.assertHolderField(fieldEmpty)),
+
+            new Case("CVC with one digit", FormPage.Field.CVC, card -> withCvc(card, DataHelper.generateRandomCVVOneDigit()),
+                    form -> form.assertCvcField(fieldInvalid)),
+            new Case("CVC with two digits", FormPage.Field.CVC, card -> withCvc(card, DataHelper.generateRandomCVVTwoDigits()),
+                    form -> form.assertCvcField(fieldInvalid)),
+            new Case("CVC 0", FormPage.Field.CVC, card -> withCvc(card, DataHelper.generateCVV0()),
+                    form -> form.assertCvcField(fieldInvalid)),
+            new Case("CVC 00", FormPage.Field.CVC, card -> withCvc(card, DataHelper.generateCVV00()),
+                    form -> form.assertCvcField(fieldInvalid)),
+            new Case("Empty CVC", FormPage.Field.CVC, card -> withCvc(card, DataHelper.generateCVVEmpty()),
+                    form -> form.assertCvcField(fieldEmpty))
+    );
+
+    // поля чередуются: соседние случаи проверяют разные поля, и перед проверкой случая подсказка поля
+    // из прошлого случая (теперь заполненного верно) должна пропасть - иначе проверка увидела бы старую подсказку
+    private static final List<Case> cases = interleave(casesByField);
+
+    private static List<Case> interleave(List<Case> source) {
+        List<Iterator<Case>> fields = source.stream()
+                .collect(Collectors.groupingBy(validation -> validation.field, () -> new EnumMap<>(FormPage.Field.class), Collectors.toList()))
+                .values().stream().map(List::iterator).collect(Collectors.toList());
+        List<Case> result = new ArrayList<>();
+        while (result.size() < source.size()) {
+            for (var field : fields) {
+                if (field.hasNext()) {
+                    result.add(field.next());
+                }
+            }
+        }
+        return result;
+    }
+
+    @BeforeEach
+    public void setupMethod() {
+        SelenideLogger.addListener("allure", new AllureSelenide());
+    }
+
+    @AfterEach
+    public void clean() {
+        cleanListNow();
+        SelenideLogger.removeListener("allure");
+    }
+
+    @TestFactory
+    @DisplayName("Validation hints of the payment form fields")
+    public Stream<DynamicTest> shouldShowValidationHintsPayment() {
+        return validationCases("payment", CardPage::clickPayButton);
+    }
+
+    @TestFactory
+    @DisplayName("Validation hints of the credit form fields")
+    public Stream<DynamicTest> shouldShowValidationHintsCredit() {
+        return validationCases("credit", CardPage::clickCreditButton);
+    }
+
+    private static Stream<DynamicTest> validationCases(String formName, Function<CardPage, FormPage> openForm) {
+        var form = new AtomicReference<>(openForm.apply(BrowserSession.openCardPage()));
+        var previousField = new AtomicReference<FormPage.Field>();
+        return cases.stream().map(validation -> DynamicTest.dynamicTest(validation.name, () -> {
+            // у каждого случая свой seed, как у обычного теста в DataSeedExtension
+            DataHelper.reseed(DataHelper.seedFor(formName + ":" + validation.name));
+            var card = validation.card.apply(DataHelper.getValidApprovedCard());
+            cleanListNow();
+            Allure.parameter("card", card);
+            try {
+                Allure.step("Fill in the form", () -> {
+                    form.get().insertingValueInForm(card.getNumber(), card.getMonth(), card.getYear(), card.getHolder(), card.getCvc());
+                    form.get().matchesByInsertValue(card.getNumber(), card.getMonth(), card.getYear(), card.getHolder(), card.getCvc());
+                });
+                Allure.step("Check the field hint", () -> {
+                    if (previousField.get() != null) {
+                        form.get().assertNoFieldHint(previousField.get());
+                    }
+                    validation.check.accept(form.get());
+                });
+                previousField.set(validation.field);
+            } catch (Throwable e) {
+                // форма могла уйти в банк: уведомление и состояние формы не должны достаться следующим случаям
+                previousField.set(null);
+                form.set(openForm.apply(BrowserSession.openCardPage()));
+                throw e;
+            }
+        }));
+    }
+}
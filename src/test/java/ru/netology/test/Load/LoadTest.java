@@ -0,0 +1,71 @@
+package ru.netology.test.Load;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import ru.netology.data.CardCorpus;
+import ru.netology.data.CardDataset;
+import ru.netology.data.DataHelper;
+import ru.netology.extension.GateSimulatorExtension;
+import ru.netology.load.LoadGenerator;
+import ru.netology.load.LoadReport;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Запуск: ./gradlew loadTest -Dload.rps=50 -Dload.concurrency=16 -Dload.duration=60 -Dload.corpus=10000 -Dload.seed=1
+@Tag("load")
+@ExtendWith(GateSimulatorExtension.class)
+public class LoadTest {
+    private static final int rps = Integer.getInteger("load.rps", 20);
+    private static final int concurrency = Integer.getInteger("load.concurrency", 8);
+    private static final Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 30));
+    private static final double maxErrorRate = 0.01;
+
+    private static final CardCorpus corpus = CardCorpus.build(DataHelper.seedFor("load"), Integer.getInteger("load.corpus", 10_000),
+            CardCorpus.Category.APPROVED, CardCorpus.Category.DECLINED).preserialize();
+    private static final AtomicLong workerSeeds = new AtomicLong(Long.getLong("load.seed", 1));
+    private static final ThreadLocal<CardCorpus.Cursor> cursor = ThreadLocal.withInitial(() -> corpus.cursor(workerSeeds.getAndIncrement()));
+
+    private static byte[] nextBody() {
+        return cursor.get().nextBody();
+    }
+
+    // -Dload.dataset=<файл> - воспроизвести записанный заранее трафик вместо случайного набора карт
+    // -Dload.async=true - один поток и неблокирующий клиент, load.concurrency - число запросов в полёте
+    private static LoadGenerator generator(String path) {
+        var dataset = System.getProperty("load.dataset", "");
+        var bodies = dataset.isEmpty() ? (Supplier<byte[]>) LoadTest::nextBody : CardDataset.open(Path.of(dataset)).replay();
+        return new LoadGenerator(path, concurrency, rps, duration, bodies).async(Boolean.getBoolean("load.async"));
+    }
+
+    private static void attach(LoadReport report) {
+        Allure.addAttachment("Load report " + report.getPath(), report.toString());
+    }
+
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("Load on the payment endpoint with approved and declined cards")
+    public void shouldKeepErrorRateUnderLoadPayment() {
+        var report = generator("api/v1/pay").run();
+        attach(report);
+        assertTrue(report.getErrorRate() <= maxErrorRate, report.toString());
+    }
+
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("Load on the credit endpoint with approved and declined cards")
+    public void shouldKeepErrorRateUnderLoadCredit() {
+        var report = generator("api/v1/credit").run();
+        attach(report);
+        assertTrue(report.getErrorRate() <= maxErrorRate, report.toString());
+    }
+}
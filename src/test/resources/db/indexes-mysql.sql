@@ -0,0 +1,8 @@
+-- Индексы для выборок DBHelper по ключам и по окну created (MySQL 8)
+CREATE INDEX payment_entity_transaction_id_idx ON payment_entity (transaction_id);
+CREATE INDEX payment_entity_created_idx ON payment_entity (created);
+CREATE INDEX credit_request_entity_bank_id_idx ON credit_request_entity (bank_id);
+CREATE INDEX credit_request_entity_created_idx ON credit_request_entity (created);
+CREATE INDEX order_entity_payment_id_idx ON order_entity (payment_id);
+CREATE INDEX order_entity_credit_id_idx ON order_entity (credit_id);
+CREATE INDEX order_entity_created_idx ON order_entity (created);